@@ -0,0 +1,190 @@
+package org.example.springintro.archive;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves rows soft-deleted longer ago than the retention window into the
+ * matching {@code *_archive} tables. Each table is walked by id in small
+ * batches, one transaction per batch, with a pause between batches. Dependent
+ * rows (order items, cart items, category links, user roles) move together
+ * with their parent, and a book or user is only archived once no hot order or
+ * cart row references it any more.
+ */
+@Component
+public class SoftDeleteArchiver implements MeterBinder {
+    private static final String NAME = "archive";
+    private static final List<ArchivedTable> TABLES = List.of(
+            new ArchivedTable("orders",
+                    "id, user_id, status, total, order_date, shipping_address, deleted_at", "",
+                    List.of(new Dependent("order_items", "order_id",
+                            "id, order_id, book_id, quantity, price"))),
+            new ArchivedTable("shopping_carts", "id, user_id, deleted_at", "",
+                    List.of(new Dependent("cart_items", "shopping_cart_id",
+                            "id, shopping_cart_id, book_id, quantity"))),
+            new ArchivedTable("books",
+                    "id, title, author, isbn, price, description, cover_image, version,"
+                            + " deleted_at",
+                    " AND NOT EXISTS (SELECT 1 FROM order_items oi WHERE oi.book_id = t.id)"
+                            + " AND NOT EXISTS (SELECT 1 FROM cart_items ci"
+                            + " WHERE ci.book_id = t.id)",
+                    List.of(new Dependent("books_categories", "book_id",
+                            "book_id, category_id"))),
+            new ArchivedTable("categories", "id, name, description, version, deleted_at", "",
+                    List.of(new Dependent("books_categories", "category_id",
+                            "book_id, category_id"))),
+            new ArchivedTable("users",
+                    "id, email, password, first_name, last_name, shipping_address, deleted_at",
+                    " AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.user_id = t.id)"
+                            + " AND NOT EXISTS (SELECT 1 FROM shopping_carts sc"
+                            + " WHERE sc.user_id = t.id)",
+                    List.of(new Dependent("users_roles", "user_id", "user_id, role_id"))));
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration pause;
+    private final Map<String, Progress> progress = new LinkedHashMap<>();
+
+    public SoftDeleteArchiver(
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${books.archive.retention:P30D}") Duration retention,
+            @Value("${books.archive.batch-size:200}") int batchSize,
+            @Value("${books.archive.pause:PT0.2S}") Duration pause
+    ) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        TABLES.forEach(table -> progress.put(table.name(), new Progress()));
+    }
+
+    @Scheduled(
+            initialDelayString = "${books.archive.interval:PT1H}",
+            fixedDelayString = "${books.archive.interval:PT1H}"
+    )
+    public void archive() {
+        for (ArchivedTable table : TABLES) {
+            if (!archiveTable(table)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        progress.forEach((table, tableProgress) -> {
+            FunctionCounter.builder(NAME + ".rows", tableProgress.rows, LongAdder::sum)
+                    .tag("table", table)
+                    .register(registry);
+            FunctionCounter.builder(NAME + ".batches", tableProgress.batches, LongAdder::sum)
+                    .tag("table", table)
+                    .register(registry);
+            Gauge.builder(NAME + ".last.id", tableProgress.lastId, AtomicLong::get)
+                    .tag("table", table)
+                    .register(registry);
+        });
+    }
+
+    private boolean archiveTable(ArchivedTable table) {
+        Progress tableProgress = progress.get(table.name());
+        long lastId = 0;
+        List<Long> ids;
+        do {
+            long after = lastId;
+            ids = transactionTemplate.execute(status -> archiveBatch(table, after));
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            tableProgress.rows.add(ids.size());
+            tableProgress.batches.increment();
+            tableProgress.lastId.set(lastId);
+            if (!pause()) {
+                return false;
+            }
+        } while (ids.size() == batchSize);
+        return true;
+    }
+
+    private List<Long> archiveBatch(ArchivedTable table, long after) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("retention", -retention.toSeconds())
+                .addValue("limit", batchSize);
+        List<Long> ids = namedParameterJdbcTemplate.queryForList("SELECT t.id FROM "
+                + table.name() + " t WHERE t.is_deleted = TRUE"
+                + " AND t.deleted_at < TIMESTAMPADD(SECOND, :retention, CURRENT_TIMESTAMP)"
+                + " AND t.id > :after" + table.condition()
+                + " ORDER BY t.id LIMIT :limit FOR UPDATE", parameters, Long.class);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        MapSqlParameterSource idParameters = new MapSqlParameterSource("ids", ids);
+        for (Dependent dependent : table.dependents()) {
+            move(dependent.name(), dependent.columns(), dependent.parentColumn(), idParameters);
+        }
+        move(table.name(), table.columns(), "id", idParameters);
+        return ids;
+    }
+
+    private void move(
+            String table,
+            String columns,
+            String keyColumn,
+            MapSqlParameterSource idParameters
+    ) {
+        namedParameterJdbcTemplate.update("INSERT INTO " + table + "_archive (" + columns
+                + ", archived_at) SELECT " + columns + ", CURRENT_TIMESTAMP FROM " + table
+                + " WHERE " + keyColumn + " IN (:ids)", idParameters);
+        namedParameterJdbcTemplate.update("DELETE FROM " + table
+                + " WHERE " + keyColumn + " IN (:ids)", idParameters);
+    }
+
+    private boolean pause() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record ArchivedTable(
+            String name,
+            String columns,
+            String condition,
+            List<Dependent> dependents
+    ) {
+    }
+
+    private record Dependent(String name, String parentColumn, String columns) {
+    }
+
+    private static final class Progress {
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final AtomicLong lastId = new AtomicLong();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.springintro.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.BookPricesChangedEvent;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.event.CategoryDeletedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class BookCache implements MeterBinder {
+    private static final String NAME = "books.cache";
+
+    private final TinyLfuCache<Long, BookDto> cache;
+
+    public BookCache(@Value("${books.cache.capacity:10000}") int capacity) {
+        cache = new TinyLfuCache<>(capacity);
+    }
+
+    public BookDto get(Long id, Function<Long, BookDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    public Map<Long, BookDto> getAll(
+            Collection<Long> ids,
+            Function<Set<Long>, Map<Long, BookDto>> loader
+    ) {
+        return cache.getAll(ids, loader);
+    }
+
+    public boolean contains(Long id) {
+        return cache.contains(id);
+    }
+
+    @EventListener
+    public void onBookSaved(BookSavedEvent event) {
+        cache.invalidate(event.book().getId());
+    }
+
+    @EventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        cache.invalidate(event.bookId());
+    }
+
+    @EventListener
+    public void onBookPricesChanged(BookPricesChangedEvent event) {
+        cache.invalidateAll(event.prices().keySet());
+    }
+
+    @TransactionalEventListener(CategoryDeletedEvent.class)
+    public void onCategoryDeleted() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(NAME + ".gets", cache, TinyLfuCache::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(NAME + ".gets", cache, TinyLfuCache::misses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(NAME + ".evictions", cache, TinyLfuCache::evictions)
+                .register(registry);
+        Gauge.builder(NAME + ".size", cache, TinyLfuCache::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.springintro.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.BookIndexesRebuiltEvent;
+import org.example.springintro.event.BookPricesChangedEvent;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.event.CategoryDeletedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counter advanced by every catalog write. Caches of derived results tag
+ * entries with the generation they were computed at and ignore older ones.
+ * Until the in-memory indexes are first built the catalog counts as not ready
+ * and results must not be cached.
+ */
+@Component
+public class CatalogGeneration {
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean ready;
+
+    public long current() {
+        return generation.get();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener({BookSavedEvent.class, BookDeletedEvent.class,
+            BookPricesChangedEvent.class})
+    public void advance() {
+        generation.incrementAndGet();
+    }
+
+    @TransactionalEventListener(CategoryDeletedEvent.class)
+    public void onCategoryDeleted() {
+        advance();
+    }
+
+    @EventListener(BookIndexesRebuiltEvent.class)
+    public void markReady() {
+        advance();
+        ready = true;
+    }
+}
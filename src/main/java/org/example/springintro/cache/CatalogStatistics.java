@@ -0,0 +1,29 @@
+package org.example.springintro.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.example.springintro.repository.book.BookRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically refreshed catalog size, so listings can report an approximate
+ * total without counting rows on every request.
+ */
+@RequiredArgsConstructor
+@Component
+public class CatalogStatistics {
+    private final BookRepository bookRepository;
+    private volatile Long bookCount;
+
+    @Scheduled(fixedDelayString = "${books.statistics.refresh-interval:PT5M}")
+    public void refresh() {
+        bookCount = bookRepository.count();
+    }
+
+    /**
+     * Returns the book count from the last refresh, or null before the first one.
+     */
+    public Long approximateBookCount() {
+        return bookCount;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.springintro.cache;
+
+/**
+ * Count-min sketch of 4-bit counters packed sixteen to a long. Counters are
+ * halved once the number of increments reaches ten times the cache capacity,
+ * so the sketch tracks recent popularity rather than all-time popularity.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(8, capacity) - 1) << 1;
+        table = new long[length];
+        tableMask = length - 1;
+        sampleSize = 10 * Math.max(1, capacity);
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long mixed = mix(hash, i);
+            int shift = offset(mixed) << 2;
+            frequency = Math.min(frequency, (int) ((table[index(mixed)] >>> shift) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long mixed = mix(hash, i);
+            int index = index(mixed);
+            long mask = (long) MAX_COUNT << (offset(mixed) << 2);
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << (offset(mixed) << 2);
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int index(long mixed) {
+        return (int) mixed & tableMask;
+    }
+
+    private static int offset(long mixed) {
+        return (int) (mixed >>> 40) & 15;
+    }
+
+    private static long mix(int hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        return mixed + (mixed >>> 32);
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
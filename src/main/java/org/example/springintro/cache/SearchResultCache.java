@@ -0,0 +1,123 @@
+package org.example.springintro.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import org.example.springintro.dto.book.BookSearchParameters;
+import org.example.springintro.index.BookFacetIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the book ids of a search page. Keys carry the catalog generation they
+ * were built at, so a result computed while a write was in flight is stored
+ * under a generation no later lookup asks for. Nothing is cached until the
+ * indexes have been built.
+ */
+@Component
+public class SearchResultCache implements MeterBinder {
+    private static final String NAME = "books.search.cache";
+
+    private final CatalogGeneration catalogGeneration;
+    private final TinyLfuCache<Key, List<Long>> cache;
+    private long cachedGeneration;
+
+    public SearchResultCache(
+            CatalogGeneration catalogGeneration,
+            @Value("${books.search.cache.capacity:2000}") int capacity
+    ) {
+        this.catalogGeneration = catalogGeneration;
+        cache = new TinyLfuCache<>(capacity);
+    }
+
+    public Key key(BookSearchParameters params, Pageable pageable) {
+        return new Key(catalogGeneration.current(),
+                normalize(params.title()),
+                normalize(params.author()),
+                params.query() == null || params.query().isBlank()
+                        ? null
+                        : params.query().trim().toLowerCase(Locale.ROOT),
+                params.hasCategories()
+                        ? Arrays.stream(params.categories()).filter(Objects::nonNull)
+                                .distinct().sorted().toList()
+                        : List.of(),
+                params.hasCategories() && params.matchAllCategories(),
+                normalize(params.minPrice()),
+                normalize(params.maxPrice()),
+                pageable.getOffset(),
+                pageable.getPageSize(),
+                pageable.getSort());
+    }
+
+    public List<Long> get(Key key) {
+        dropOlderGenerations(key.generation());
+        return cache.getIfPresent(key);
+    }
+
+    public void put(Key key, List<Long> bookIds) {
+        if (catalogGeneration.isReady() && key.generation() == catalogGeneration.current()) {
+            dropOlderGenerations(key.generation());
+            cache.putIfAbsent(key, List.copyOf(bookIds));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(NAME + ".gets", cache, TinyLfuCache::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(NAME + ".gets", cache, TinyLfuCache::misses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(NAME + ".evictions", cache, TinyLfuCache::evictions)
+                .register(registry);
+        Gauge.builder(NAME + ".size", cache, TinyLfuCache::size)
+                .register(registry);
+    }
+
+    private synchronized void dropOlderGenerations(long generation) {
+        if (generation > cachedGeneration) {
+            cache.invalidateAll();
+            cachedGeneration = generation;
+        }
+    }
+
+    private static List<String> normalize(String[] values) {
+        if (values == null) {
+            return List.of();
+        }
+        return Arrays.stream(values)
+                .filter(Objects::nonNull)
+                .map(BookFacetIndex::normalize)
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static BigDecimal normalize(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+
+    public record Key(
+            long generation,
+            List<String> titles,
+            List<String> authors,
+            String query,
+            List<Long> categories,
+            boolean matchAllCategories,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            long offset,
+            int size,
+            Sort sort
+    ) {
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.springintro.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded cache with W-TinyLFU eviction: new entries land in a small LRU window,
+ * and an entry leaving the window only enters the segmented LRU main space when
+ * the frequency sketch says it is more popular than the main space's victim.
+ *
+ * <p>Lookups only read a concurrent map and queue the key in a read buffer; the
+ * sketch and LRU order are updated when the buffer is drained under the
+ * eviction lock, either by a reader that finds it half full and the lock free,
+ * or by the next write. When the buffer is full further reads are not recorded.
+ */
+public class TinyLfuCache<K, V> {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+    private final Set<K> window = new LinkedHashSet<>();
+    private final Set<K> probation = new LinkedHashSet<>();
+    private final Set<K> protectedSegment = new LinkedHashSet<>();
+    private final Queue<K> readBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedReads = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long generation;
+
+    public TinyLfuCache(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Cache capacity must be at least 2");
+        }
+        windowCapacity = Math.max(1, capacity * WINDOW_PERCENT / 100);
+        mainCapacity = capacity - windowCapacity;
+        protectedCapacity = Math.max(1, mainCapacity * PROTECTED_PERCENT / 100);
+        sketch = new FrequencySketch(capacity);
+    }
+
+    /**
+     * Returns the cached value or loads it outside the lock. A load that raced
+     * with an invalidation is returned to the caller but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration = generation;
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            evictionLock.lock();
+            try {
+                drainReads();
+                if (loadGeneration == generation && !values.containsKey(key)) {
+                    insert(key, value);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached values of the keys and loads the missing ones with a
+     * single call to the bulk loader, under the same invalidation rule as
+     * {@link #get}. Keys the loader does not return are absent from the result.
+     */
+    public Map<K, V> getAll(
+            Collection<? extends K> keys,
+            Function<? super Set<K>, ? extends Map<K, V>> loader
+    ) {
+        long loadGeneration = generation;
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (result.containsKey(key) || missing.contains(key)) {
+                continue;
+            }
+            V value = getIfPresent(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<K, V> loaded = loader.apply(missing);
+        evictionLock.lock();
+        try {
+            drainReads();
+            for (Map.Entry<K, V> entry : loaded.entrySet()) {
+                if (entry.getValue() != null && loadGeneration == generation
+                        && !values.containsKey(entry.getKey())) {
+                    insert(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public V getIfPresent(K key) {
+        V value = values.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        recordRead(key);
+        return value;
+    }
+
+    public void putIfAbsent(K key, V value) {
+        evictionLock.lock();
+        try {
+            drainReads();
+            if (!values.containsKey(key)) {
+                insert(key, value);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public boolean contains(K key) {
+        return values.containsKey(key);
+    }
+
+    public void invalidate(K key) {
+        invalidateAll(Set.of(key));
+    }
+
+    public void invalidateAll(Collection<? extends K> keys) {
+        evictionLock.lock();
+        try {
+            generation++;
+            for (K key : keys) {
+                if (values.remove(key) != null && !window.remove(key)
+                        && !probation.remove(key)) {
+                    protectedSegment.remove(key);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            generation++;
+            values.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private void recordRead(K key) {
+        if (bufferedReads.incrementAndGet() > READ_BUFFER_SIZE) {
+            bufferedReads.decrementAndGet();
+        } else {
+            readBuffer.offer(key);
+        }
+        if (bufferedReads.get() >= READ_BUFFER_SIZE / 2 && evictionLock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReads() {
+        K key;
+        while ((key = readBuffer.poll()) != null) {
+            bufferedReads.decrementAndGet();
+            sketch.increment(key);
+            onAccess(key);
+        }
+    }
+
+    private void onAccess(K key) {
+        if (window.remove(key)) {
+            window.add(key);
+        } else if (protectedSegment.remove(key)) {
+            protectedSegment.add(key);
+        } else if (probation.remove(key)) {
+            protectedSegment.add(key);
+            if (protectedSegment.size() > protectedCapacity) {
+                probation.add(removeEldest(protectedSegment));
+            }
+        }
+    }
+
+    private void insert(K key, V value) {
+        values.put(key, value);
+        window.add(key);
+        if (window.size() <= windowCapacity) {
+            return;
+        }
+        K candidate = removeEldest(window);
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.add(candidate);
+            return;
+        }
+        evictions.increment();
+        K victim = (probation.isEmpty() ? protectedSegment : probation).iterator().next();
+        if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            probation.remove(victim);
+            protectedSegment.remove(victim);
+            values.remove(victim);
+            probation.add(candidate);
+        } else {
+            values.remove(candidate);
+        }
+    }
+
+    private static <K> K removeEldest(Set<K> segment) {
+        Iterator<K> iterator = segment.iterator();
+        K eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.example.springintro.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -38,6 +39,7 @@ public class SecurityConfig {
                         auth -> auth
                                 .requestMatchers("/auth/**", "/error",
                                         "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/covers/**").permitAll()
                                 .anyRequest()
                                 .authenticated()
                 )
@@ -2,18 +2,37 @@ package org.example.springintro.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.example.springintro.dto.book.BestsellerDto;
+import org.example.springintro.dto.book.BookBatchDto;
+import org.example.springintro.dto.book.BookCursorPageDto;
 import org.example.springintro.dto.book.BookDto;
 import org.example.springintro.dto.book.BookDtoWithoutCategoryIds;
+import org.example.springintro.dto.book.BookFuzzySearchResultDto;
+import org.example.springintro.dto.book.BookImportReportDto;
+import org.example.springintro.dto.book.BookPriceUpdateReportDto;
 import org.example.springintro.dto.book.BookSearchParameters;
+import org.example.springintro.dto.book.BookSearchResultDto;
+import org.example.springintro.dto.book.BookSliceDto;
+import org.example.springintro.dto.book.BookSuggestionDto;
 import org.example.springintro.dto.book.CreateBookRequestDto;
+import org.example.springintro.services.BookCoverService;
+import org.example.springintro.services.BookExportService;
+import org.example.springintro.services.BookImportService;
+import org.example.springintro.services.BookPriceUpdateService;
 import org.example.springintro.services.BookService;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,9 +41,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.server.ResponseStatusException;
 
 @Tag(
@@ -35,7 +58,13 @@ import org.springframework.web.server.ResponseStatusException;
 @RestController
 @RequestMapping("/books")
 public class BookController {
+    private static final Duration EXPORT_TIMEOUT = Duration.ofHours(1);
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookPriceUpdateService bookPriceUpdateService;
+    private final BookExportService bookExportService;
+    private final BookCoverService bookCoverService;
 
     @PreAuthorize("hasAuthority('USER')")
     @GetMapping
@@ -48,11 +77,118 @@ public class BookController {
         return bookService.findAll(pageable);
     }
 
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Get books by ids",
+            description = "Get up to 100 books in the order of the ids,"
+                    + " listing the ids that were not found"
+    )
+    public BookBatchDto getByIds(@RequestParam List<Long> ids) {
+        return bookService.findAllByIds(ids);
+    }
+
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping("/scroll")
+    @Operation(
+            summary = "Scroll all books",
+            description = "Get the next page of books after the given cursor"
+    )
+    public BookCursorPageDto scrollAll(
+            @RequestParam(required = false) String after,
+            @ParameterObject @PageableDefault Pageable pageable
+    ) {
+        return bookService.findAll(after, pageable);
+    }
+
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping("/slice")
+    @Operation(
+            summary = "Get a slice of books",
+            description = "Get a page of books with hasNext and an approximate total"
+                    + " instead of an exact count"
+    )
+    public BookSliceDto getSlice(@ParameterObject @PageableDefault Pageable pageable) {
+        return bookService.findSlice(pageable);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Suggest books",
+            description = "Get the most popular titles and authors starting with the prefix"
+    )
+    public List<BookSuggestionDto> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return bookService.suggest(prefix, limit);
+    }
+
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping("/bestsellers")
+    @Operation(
+            summary = "Get bestsellers",
+            description = "Get the books with the most units sold, overall or in a category,"
+                    + " all time or within the recent sales window"
+    )
+    public List<BestsellerDto> getBestsellers(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "false") boolean recent,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return bookService.findBestsellers(categoryId, recent, limit);
+    }
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Export books",
+            description = "Stream every book with its category ids as NDJSON"
+    )
+    public WebAsyncTask<Void> exportBooks(HttpServletResponse response) {
+        return new WebAsyncTask<>(EXPORT_TIMEOUT.toMillis(), () -> {
+            response.setContentType("application/x-ndjson");
+            bookExportService.exportBooks(response.getOutputStream());
+            return null;
+        });
+    }
+
     @PreAuthorize("hasAuthority('USER')")
     @GetMapping("/{id}")
     @Operation(summary = "Get book by id", description = "Get book by id from the book shop")
-    public BookDto getBookById(@PathVariable Long id) {
-        return bookService.findById(id);
+    public BookDto getBookById(@PathVariable Long id, WebRequest request) {
+        BookDto book = bookService.findById(id);
+        if (request.checkNotModified(id + "-" + book.getVersion())) {
+            return null;
+        }
+        return book;
+    }
+
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping("/{id}/also-bought")
+    @Operation(
+            summary = "Get also bought books",
+            description = "Get the books most often ordered together with the book"
+    )
+    public List<BookDto> getAlsoBought(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return bookService.findAlsoBought(id, limit);
+    }
+
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping("/{id}/similar")
+    @Operation(
+            summary = "Get similar books",
+            description = "Get the books whose title, author and description are closest"
+                    + " to the book's"
+    )
+    public List<BookDto> getSimilar(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return bookService.findSimilar(id, limit);
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -63,6 +199,33 @@ public class BookController {
         return bookService.save(requestDto);
     }
 
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Import books",
+            description = "Bulk import books streamed as CSV with a header row or as NDJSON"
+    )
+    public BookImportReportDto importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        return bookImportService.importBooks(request.getInputStream(), contentType);
+    }
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping(value = "/prices", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Update book prices",
+            description = "Bulk update prices from (id or isbn, price) rows streamed as CSV"
+                    + " with a header row or as NDJSON"
+    )
+    public BookPriceUpdateReportDto updatePrices(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        return bookPriceUpdateService.updatePrices(request.getInputStream(), contentType);
+    }
+
     @PreAuthorize("hasAuthority('ADMIN')")
     @PutMapping("/{id}")
     @Operation(summary = "Update book", description = "Update book in the book shop")
@@ -73,6 +236,24 @@ public class BookController {
         return bookService.updateById(id, requestDto);
     }
 
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PutMapping(value = "/{id}/cover", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE, "image/webp"
+    })
+    @Operation(
+            summary = "Upload book cover",
+            description = "Store the request body as the book's cover image;"
+                    + " the stored image is served from /covers"
+    )
+    public BookDto uploadCover(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        return bookCoverService.storeCover(id, contentType, request.getInputStream());
+    }
+
     @PreAuthorize("hasAuthority('ADMIN')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
@@ -82,7 +263,12 @@ public class BookController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search books", description = "Search books in the book shop")
+    @Operation(
+            summary = "Search books",
+            description = "Search books in the book shop by exact title and author,"
+                    + " by any or all of the given categories, within minPrice and maxPrice,"
+                    + " or rank them by relevance to the words of the query parameter"
+    )
     public List<BookDto> searchBooks(
             @ParameterObject @PageableDefault Pageable pageable,
             BookSearchParameters searchParameters
@@ -90,6 +276,58 @@ public class BookController {
         return bookService.search(searchParameters, pageable);
     }
 
+    @GetMapping(value = "/search", params = "facets")
+    @Operation(
+            summary = "Search books with facets",
+            description = "Search books and count the matches per category, author"
+                    + " and price range; facets selects which counts to return"
+    )
+    public BookSearchResultDto searchBooksWithFacets(
+            @RequestParam(required = false) List<String> facets,
+            @ParameterObject @PageableDefault Pageable pageable,
+            BookSearchParameters searchParameters
+    ) {
+        return bookService.search(searchParameters, facets, pageable);
+    }
+
+    @GetMapping(value = "/search", params = "fuzzy")
+    @Operation(
+            summary = "Fuzzy search books",
+            description = "Search titles and authors tolerating typos, closest spellings first;"
+                    + " didYouMean suggests a spelling when nothing matches exactly"
+    )
+    public BookFuzzySearchResultDto fuzzySearchBooks(
+            @RequestParam String fuzzy,
+            @ParameterObject @PageableDefault Pageable pageable
+    ) {
+        return bookService.searchFuzzy(fuzzy, pageable);
+    }
+
+    @GetMapping("/search/slice")
+    @Operation(
+            summary = "Search a slice of books",
+            description = "Search books and return the page with hasNext instead of a count"
+    )
+    public BookSliceDto searchSlice(
+            @ParameterObject @PageableDefault Pageable pageable,
+            BookSearchParameters searchParameters
+    ) {
+        return bookService.searchSlice(searchParameters, pageable);
+    }
+
+    @GetMapping("/search/scroll")
+    @Operation(
+            summary = "Scroll search results",
+            description = "Get the next page of found books after the given cursor"
+    )
+    public BookCursorPageDto scrollSearchBooks(
+            @RequestParam(required = false) String after,
+            @ParameterObject @PageableDefault Pageable pageable,
+            BookSearchParameters searchParameters
+    ) {
+        return bookService.search(searchParameters, after, pageable);
+    }
+
     @PreAuthorize("hasAuthority('USER')")
     @GetMapping("/{id}/books")
     @Operation(
@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(
         name = "Categories",
@@ -44,7 +45,10 @@ public class CategoryController {
             summary = "Get all categories",
             description = "Get all categories from the book shop"
     )
-    public List<CategoryDto> getAll() {
+    public List<CategoryDto> getAll(WebRequest request) {
+        if (request.checkNotModified(categoryService.getListVersion())) {
+            return null;
+        }
         return categoryService.findAll();
     }
 
@@ -54,7 +58,10 @@ public class CategoryController {
             summary = "Get category by id",
             description = "Get category by id from the book shop"
     )
-    public CategoryDto getCategoryById(@PathVariable Long id) {
+    public CategoryDto getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(id + "-" + categoryService.getVersionById(id))) {
+            return null;
+        }
         return categoryService.getById(id);
     }
 
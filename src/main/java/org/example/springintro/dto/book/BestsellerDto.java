@@ -0,0 +1,4 @@
+package org.example.springintro.dto.book;
+
+public record BestsellerDto(BookDto book, long unitsSold) {
+}
@@ -0,0 +1,10 @@
+package org.example.springintro.dto.book;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookBatchDto {
+    private List<BookDto> content;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,11 @@
+package org.example.springintro.dto.book;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookCursorPageDto {
+    private List<BookDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
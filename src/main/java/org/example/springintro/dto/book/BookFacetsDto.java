@@ -0,0 +1,19 @@
+package org.example.springintro.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookFacetsDto {
+    private List<FacetCountDto> categories;
+    private List<FacetCountDto> authors;
+    private List<FacetCountDto> prices;
+
+    public enum Facet {
+        CATEGORY,
+        AUTHOR,
+        PRICE
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.springintro.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookFuzzySearchResultDto {
+    private List<BookDto> content;
+    private long total;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String didYouMean;
+}
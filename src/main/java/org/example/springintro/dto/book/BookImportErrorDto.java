@@ -0,0 +1,4 @@
+package org.example.springintro.dto.book;
+
+public record BookImportErrorDto(long line, String isbn, String message) {
+}
@@ -0,0 +1,17 @@
+package org.example.springintro.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BookPriceUpdateDto {
+    private Long id;
+    private String isbn;
+    @NotNull
+    @Min(0)
+    private BigDecimal price;
+}
@@ -0,0 +1,14 @@
+package org.example.springintro.dto.book;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookPriceUpdateReportDto {
+    private long processed;
+    private long updated;
+    private long notFound;
+    private long failed;
+    private List<BookImportErrorDto> errors = new ArrayList<>();
+}
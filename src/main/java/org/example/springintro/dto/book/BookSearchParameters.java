@@ -1,5 +1,30 @@
 package org.example.springintro.dto.book;
 
-public record BookSearchParameters(String[] title, String[] author) {
+import java.math.BigDecimal;
 
+public record BookSearchParameters(
+        String[] title,
+        String[] author,
+        String query,
+        Long[] categories,
+        CategoryMatch categoryMatch,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {
+    public boolean matchAllCategories() {
+        return categoryMatch == CategoryMatch.ALL;
+    }
+
+    public boolean hasCategories() {
+        return categories != null && categories.length > 0;
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    public enum CategoryMatch {
+        ANY,
+        ALL
+    }
 }
@@ -0,0 +1,11 @@
+package org.example.springintro.dto.book;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookSearchResultDto {
+    private List<BookDto> content;
+    private long total;
+    private BookFacetsDto facets;
+}
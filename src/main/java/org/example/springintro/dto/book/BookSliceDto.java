@@ -0,0 +1,15 @@
+package org.example.springintro.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookSliceDto {
+    private List<BookDto> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long approximateTotal;
+}
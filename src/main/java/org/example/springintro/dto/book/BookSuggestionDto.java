@@ -0,0 +1,8 @@
+package org.example.springintro.dto.book;
+
+public record BookSuggestionDto(String text, Type type) {
+    public enum Type {
+        TITLE,
+        AUTHOR
+    }
+}
@@ -1,10 +1,12 @@
 package org.example.springintro.dto.book;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.util.List;
 import lombok.Data;
@@ -13,17 +15,23 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CreateBookRequestDto {
     @NotBlank
+    @Size(max = 255)
     private String title;
     @NotBlank
+    @Size(max = 255)
     private String author;
     @NotBlank
+    @Size(max = 255)
     private String isbn;
     @NotNull
     @Min(0)
+    @DecimalMax("99999999.99")
     private BigDecimal price;
     @NotBlank
+    @Size(max = 255)
     private String description;
     @NotBlank
+    @Size(max = 255)
     private String coverImage;
     @NotEmpty
     private List<Long> categoryIds;
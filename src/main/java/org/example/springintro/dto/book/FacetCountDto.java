@@ -0,0 +1,4 @@
+package org.example.springintro.dto.book;
+
+public record FacetCountDto(String value, long count) {
+}
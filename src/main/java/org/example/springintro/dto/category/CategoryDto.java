@@ -1,8 +1,12 @@
 package org.example.springintro.dto.category;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CategoryDto {
     private Long id;
     private String name;
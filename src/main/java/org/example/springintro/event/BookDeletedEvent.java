@@ -0,0 +1,4 @@
+package org.example.springintro.event;
+
+public record BookDeletedEvent(Long bookId) {
+}
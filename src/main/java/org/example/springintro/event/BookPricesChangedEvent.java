@@ -0,0 +1,7 @@
+package org.example.springintro.event;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record BookPricesChangedEvent(Map<Long, BigDecimal> prices) {
+}
@@ -0,0 +1,6 @@
+package org.example.springintro.event;
+
+import org.example.springintro.model.Book;
+
+public record BookSavedEvent(Book book) {
+}
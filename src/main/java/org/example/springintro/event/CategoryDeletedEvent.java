@@ -0,0 +1,4 @@
+package org.example.springintro.event;
+
+public record CategoryDeletedEvent(Long categoryId) {
+}
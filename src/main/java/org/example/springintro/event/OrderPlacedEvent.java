@@ -0,0 +1,7 @@
+package org.example.springintro.event;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record OrderPlacedEvent(Long orderId, Instant placedAt, Map<Long, Integer> quantities) {
+}
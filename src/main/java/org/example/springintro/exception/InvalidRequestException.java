@@ -0,0 +1,7 @@
+package org.example.springintro.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
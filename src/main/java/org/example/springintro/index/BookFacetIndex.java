@@ -0,0 +1,381 @@
+package org.example.springintro.index;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import org.example.springintro.dto.book.BookFacetsDto;
+import org.example.springintro.dto.book.FacetCountDto;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Facet counts over a columnar snapshot of the catalog: primitive arrays sorted
+ * by book id, which every request scans once to count all facets. Writes only
+ * touch the per-book rows and record the changed ids; the next facet request
+ * merges those rows into the previous arrays in one pass, like
+ * {@link BookPriceIndex}, instead of rebuilding the whole catalog.
+ */
+@Component
+public class BookFacetIndex implements BookIndex {
+    public static final int MAX_AUTHORS = 20;
+    private static final long[] PRICE_BOUNDS = {1000, 2500, 5000, 10000};
+    private static final String[] PRICE_LABELS = {"0-10", "10-25", "25-50", "50-100", "100+"};
+
+    private Map<Long, Row> rows = new HashMap<>();
+    private RoaringBitmap changedBooks = new RoaringBitmap();
+    private Dictionaries dictionaries = new Dictionaries();
+    private Snapshot merged = Snapshot.EMPTY;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Override
+    public synchronized void clear() {
+        rows.clear();
+        changedBooks.clear();
+        dictionaries = new Dictionaries();
+        merged = Snapshot.EMPTY;
+        snapshot = Snapshot.EMPTY;
+    }
+
+    @Override
+    public BookFacetIndex newInstance() {
+        return new BookFacetIndex();
+    }
+
+    @Override
+    public synchronized void replaceWith(BookIndex rebuilt) {
+        BookFacetIndex source = (BookFacetIndex) rebuilt;
+        rows = source.rows;
+        changedBooks = source.changedBooks;
+        dictionaries = source.dictionaries;
+        merged = source.merged;
+        snapshot = null;
+    }
+
+    @Override
+    public synchronized void index(Book book) {
+        rows.put(book.getId(), new Row(book.getTitle(), book.getAuthor(),
+                toCents(book.getPrice()), book.getCategories().stream()
+                        .mapToLong(Category::getId)
+                        .distinct()
+                        .toArray()));
+        markChanged(book.getId());
+    }
+
+    @Override
+    public synchronized void remove(Long bookId) {
+        if (rows.remove(bookId) != null) {
+            markChanged(bookId);
+        }
+    }
+
+    @Override
+    public synchronized void updatePrices(Map<Long, BigDecimal> prices) {
+        prices.forEach((bookId, price) -> {
+            if (rows.computeIfPresent(bookId, (id, row) -> new Row(row.title(), row.author(),
+                    toCents(price), row.categoryIds())) != null) {
+                markChanged(bookId);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void removeCategory(Long categoryId) {
+        rows.replaceAll((bookId, row) -> {
+            if (Arrays.stream(row.categoryIds()).noneMatch(id -> id == categoryId)) {
+                return row;
+            }
+            markChanged(bookId);
+            return new Row(row.title(), row.author(), row.priceCents(),
+                    Arrays.stream(row.categoryIds()).filter(id -> id != categoryId).toArray());
+        });
+    }
+
+    /**
+     * Counts matching books and the requested facets. Titles and authors are
+     * compared like {@link #match} does. A null filter argument means the
+     * corresponding constraint is not applied.
+     */
+    public Counts count(
+            RoaringBitmap bookIds,
+            Set<String> titles,
+            Set<String> authors,
+            Set<BookFacetsDto.Facet> facets
+    ) {
+        Snapshot current = snapshot();
+        Set<String> titleKeys = normalize(titles);
+        boolean[] allowedAuthors = null;
+        if (authors != null) {
+            Set<String> authorKeys = normalize(authors);
+            allowedAuthors = new boolean[current.authors().length];
+            for (int i = 0; i < allowedAuthors.length; i++) {
+                allowedAuthors[i] = authorKeys.contains(current.authorKeys()[i]);
+            }
+        }
+        int[] categoryCounts = new int[current.categories().length];
+        int[] authorCounts = new int[current.authors().length];
+        int[] priceCounts = new int[PRICE_LABELS.length];
+        long total = 0;
+        for (int row = 0; row < current.ids().length; row++) {
+            if (bookIds != null && !bookIds.contains((int) current.ids()[row])
+                    || titleKeys != null && !titleKeys.contains(current.titleKeys()[row])
+                    || allowedAuthors != null && !allowedAuthors[current.authorOrdinals()[row]]) {
+                continue;
+            }
+            total++;
+            authorCounts[current.authorOrdinals()[row]]++;
+            priceCounts[priceBucket(current.priceCents()[row])]++;
+            for (int i = current.categoryStarts()[row]; i < current.categoryStarts()[row + 1];
+                    i++) {
+                categoryCounts[current.categoryOrdinals()[i]]++;
+            }
+        }
+        BookFacetsDto result = new BookFacetsDto();
+        if (facets.contains(BookFacetsDto.Facet.CATEGORY)) {
+            result.setCategories(toFacetCounts(categoryCounts,
+                    ordinal -> String.valueOf(current.categories()[ordinal]), Integer.MAX_VALUE));
+        }
+        if (facets.contains(BookFacetsDto.Facet.AUTHOR)) {
+            result.setAuthors(toFacetCounts(authorCounts,
+                    ordinal -> current.authors()[ordinal], MAX_AUTHORS));
+        }
+        if (facets.contains(BookFacetsDto.Facet.PRICE)) {
+            List<FacetCountDto> prices = new ArrayList<>(PRICE_LABELS.length);
+            for (int i = 0; i < PRICE_LABELS.length; i++) {
+                prices.add(new FacetCountDto(PRICE_LABELS[i], priceCounts[i]));
+            }
+            result.setPrices(prices);
+        }
+        return new Counts(total, result);
+    }
+
+    /**
+     * Returns the ids of books whose title is in {@code titles} and whose author
+     * is in {@code authors}, compared like the database does, ignoring case and
+     * surrounding blanks. A null set means the constraint is not applied.
+     */
+    public RoaringBitmap match(Set<String> titles, Set<String> authors) {
+        Snapshot current = snapshot();
+        Set<String> titleKeys = normalize(titles);
+        Set<String> authorKeys = normalize(authors);
+        RoaringBitmap result = new RoaringBitmap();
+        for (int row = 0; row < current.ids().length; row++) {
+            if ((titleKeys == null || titleKeys.contains(current.titleKeys()[row]))
+                    && (authorKeys == null || authorKeys.contains(
+                            current.authorKeys()[current.authorOrdinals()[row]]))) {
+                result.add((int) current.ids()[row]);
+            }
+        }
+        return result;
+    }
+
+    private void markChanged(Long bookId) {
+        changedBooks.add(bookId.intValue());
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                merged = merge(merged);
+                changedBooks.clear();
+                snapshot = merged;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Drops the changed books from {@code base} and merges their current rows
+     * back in, keeping the id order. Unchanged rows are copied column by column.
+     */
+    private Snapshot merge(Snapshot base) {
+        List<Long> changes = new ArrayList<>();
+        int changedLinks = 0;
+        for (int bookId : changedBooks) {
+            Row row = rows.get((long) bookId);
+            if (row != null) {
+                changes.add((long) bookId);
+                changedLinks += row.categoryIds().length;
+            }
+        }
+        Columns columns = new Columns(base.ids().length + changes.size(),
+                base.categoryOrdinals().length + changedLinks);
+        int next = 0;
+        for (int row = 0; row < base.ids().length; row++) {
+            long bookId = base.ids()[row];
+            if (changedBooks.contains((int) bookId)) {
+                continue;
+            }
+            while (next < changes.size() && changes.get(next) < bookId) {
+                addRow(columns, changes.get(next++));
+            }
+            columns.add(bookId, base.titleKeys()[row], base.authorOrdinals()[row],
+                    base.priceCents()[row], base.categoryOrdinals(),
+                    base.categoryStarts()[row], base.categoryStarts()[row + 1]);
+        }
+        for (; next < changes.size(); next++) {
+            addRow(columns, changes.get(next));
+        }
+        return columns.toSnapshot(dictionaries);
+    }
+
+    private void addRow(Columns columns, long bookId) {
+        Row row = rows.get(bookId);
+        int[] categoryOrdinals = new int[row.categoryIds().length];
+        for (int i = 0; i < categoryOrdinals.length; i++) {
+            categoryOrdinals[i] = dictionaries.categoryOrdinal(row.categoryIds()[i]);
+        }
+        columns.add(bookId, normalize(row.title()), dictionaries.authorOrdinal(row.author()),
+                row.priceCents(), categoryOrdinals, 0, categoryOrdinals.length);
+    }
+
+    /**
+     * Normalizes a title or author the way the case-insensitive database
+     * collation compares them.
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalize(Set<String> values) {
+        if (values == null) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (String value : values) {
+            result.add(normalize(value));
+        }
+        return result;
+    }
+
+    private static List<FacetCountDto> toFacetCounts(
+            int[] counts,
+            IntFunction<String> label,
+            int limit
+    ) {
+        List<FacetCountDto> result = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                result.add(new FacetCountDto(label.apply(ordinal), counts[ordinal]));
+            }
+        }
+        result.sort(Comparator.comparingLong(FacetCountDto::count).reversed()
+                .thenComparing(FacetCountDto::value));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    private static int priceBucket(long cents) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && cents >= PRICE_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).longValue();
+    }
+
+    public record Counts(long total, BookFacetsDto facets) {
+    }
+
+    private record Row(String title, String author, long priceCents, long[] categoryIds) {
+    }
+
+    private record Snapshot(
+            long[] ids,
+            String[] titleKeys,
+            int[] authorOrdinals,
+            long[] priceCents,
+            int[] categoryStarts,
+            int[] categoryOrdinals,
+            String[] authors,
+            String[] authorKeys,
+            long[] categories
+    ) {
+        static final Snapshot EMPTY = new Snapshot(new long[0], new String[0], new int[0],
+                new long[0], new int[1], new int[0], new String[0], new String[0], new long[0]);
+    }
+
+    /**
+     * Author and category ordinals shared by consecutive snapshots. Ordinals are
+     * only ever added, so unchanged rows keep theirs; unused ones count zero and
+     * are left out of the facets.
+     */
+    private static class Dictionaries {
+        private final Map<String, Integer> authorOrdinals = new HashMap<>();
+        private final List<String> authors = new ArrayList<>();
+        private final List<String> authorKeys = new ArrayList<>();
+        private final Map<Long, Integer> categoryOrdinals = new HashMap<>();
+        private final List<Long> categories = new ArrayList<>();
+
+        int authorOrdinal(String author) {
+            return authorOrdinals.computeIfAbsent(author, key -> {
+                authors.add(author);
+                authorKeys.add(normalize(author));
+                return authors.size() - 1;
+            });
+        }
+
+        int categoryOrdinal(long categoryId) {
+            return categoryOrdinals.computeIfAbsent(categoryId, key -> {
+                categories.add(categoryId);
+                return categories.size() - 1;
+            });
+        }
+    }
+
+    private static class Columns {
+        private final long[] ids;
+        private final String[] titleKeys;
+        private final int[] authorOrdinals;
+        private final long[] priceCents;
+        private final int[] categoryStarts;
+        private final int[] categoryOrdinals;
+        private int size;
+
+        Columns(int rows, int categoryLinks) {
+            ids = new long[rows];
+            titleKeys = new String[rows];
+            authorOrdinals = new int[rows];
+            priceCents = new long[rows];
+            categoryStarts = new int[rows + 1];
+            categoryOrdinals = new int[categoryLinks];
+        }
+
+        void add(long bookId, String titleKey, int authorOrdinal, long cents,
+                int[] categories, int from, int to) {
+            ids[size] = bookId;
+            titleKeys[size] = titleKey;
+            authorOrdinals[size] = authorOrdinal;
+            priceCents[size] = cents;
+            int start = categoryStarts[size];
+            System.arraycopy(categories, from, categoryOrdinals, start, to - from);
+            categoryStarts[++size] = start + to - from;
+        }
+
+        Snapshot toSnapshot(Dictionaries dictionaries) {
+            return new Snapshot(Arrays.copyOf(ids, size), Arrays.copyOf(titleKeys, size),
+                    Arrays.copyOf(authorOrdinals, size), Arrays.copyOf(priceCents, size),
+                    Arrays.copyOf(categoryStarts, size + 1),
+                    Arrays.copyOf(categoryOrdinals, categoryStarts[size]),
+                    dictionaries.authors.toArray(String[]::new),
+                    dictionaries.authorKeys.toArray(String[]::new),
+                    dictionaries.categories.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.springintro.index;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import org.example.springintro.model.Book;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookFullTextIndex implements BookIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final int INITIAL_DOCS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, PostingList> postings = new HashMap<>();
+    private Map<Long, Integer> docsByBookId = new HashMap<>();
+    private Deque<Integer> freeDocs = new ArrayDeque<>();
+    private long[] bookIds = new long[INITIAL_DOCS];
+    private float[] lengths = new float[INITIAL_DOCS];
+    private String[][] docTerms = new String[INITIAL_DOCS][];
+    private int nextDoc;
+    private double totalLength;
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docsByBookId.clear();
+            freeDocs.clear();
+            bookIds = new long[INITIAL_DOCS];
+            lengths = new float[INITIAL_DOCS];
+            docTerms = new String[INITIAL_DOCS][];
+            nextDoc = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BookFullTextIndex newInstance() {
+        return new BookFullTextIndex();
+    }
+
+    @Override
+    public void replaceWith(BookIndex rebuilt) {
+        BookFullTextIndex source = (BookFullTextIndex) rebuilt;
+        lock.writeLock().lock();
+        try {
+            postings = source.postings;
+            docsByBookId = source.docsByBookId;
+            freeDocs = source.freeDocs;
+            bookIds = source.bookIds;
+            lengths = source.lengths;
+            docTerms = source.docTerms;
+            nextDoc = source.nextDoc;
+            totalLength = source.totalLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, book.getTitle(), TITLE_WEIGHT);
+        addField(frequencies, book.getAuthor(), AUTHOR_WEIGHT);
+        addField(frequencies, book.getDescription(), DESCRIPTION_WEIGHT);
+        lock.writeLock().lock();
+        try {
+            removeDoc(book.getId());
+            int doc = allocateDoc();
+            float length = 0;
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                        .add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            bookIds[doc] = book.getId();
+            lengths[doc] = length;
+            docTerms[doc] = frequencies.keySet().toArray(String[]::new);
+            docsByBookId.put(book.getId(), doc);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query, long offset, int limit) {
+        return search(query, bookId -> true, offset, limit);
+    }
+
+    public List<Long> search(String query, LongPredicate filter, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        lock.readLock().lock();
+        try {
+            ScoreAccumulator scores = score(terms, filter);
+            if (scores == null || offset >= scores.size()) {
+                return List.of();
+            }
+            int[] top = scores.top((int) Math.min(offset + limit, scores.size()));
+            return Arrays.stream(top, (int) offset, top.length)
+                    .mapToObj(doc -> bookIds[doc])
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] match(String query) {
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        lock.readLock().lock();
+        try {
+            ScoreAccumulator scores = score(terms, bookId -> true);
+            if (scores == null) {
+                return new long[0];
+            }
+            return Arrays.stream(scores.docs()).mapToLong(doc -> bookIds[doc]).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int allocatedDocs() {
+        lock.readLock().lock();
+        try {
+            return nextDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ScoreAccumulator score(Set<String> terms, LongPredicate filter) {
+        int liveDocs = docsByBookId.size();
+        if (liveDocs == 0) {
+            return null;
+        }
+        float averageLength = (float) (totalLength / liveDocs);
+        int candidates = 0;
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            candidates += list == null ? 0 : list.size();
+        }
+        if (candidates == 0) {
+            return null;
+        }
+        ScoreAccumulator scores = new ScoreAccumulator(candidates);
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            int documentFrequency = list.size();
+            float idf = (float) Math.log(1 + (liveDocs - documentFrequency + 0.5)
+                    / (documentFrequency + 0.5));
+            for (int i = 0; i < documentFrequency; i++) {
+                int doc = list.doc(i);
+                if (!filter.test(bookIds[doc])) {
+                    continue;
+                }
+                float frequency = list.frequency(i);
+                float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                scores.add(doc, idf * frequency * (K1 + 1) / (frequency + norm));
+            }
+        }
+        return scores;
+    }
+
+    private void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : TextTokenizer.tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    private int allocateDoc() {
+        if (!freeDocs.isEmpty()) {
+            return freeDocs.pop();
+        }
+        if (nextDoc == bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, nextDoc * 2);
+            lengths = Arrays.copyOf(lengths, nextDoc * 2);
+            docTerms = Arrays.copyOf(docTerms, nextDoc * 2);
+        }
+        return nextDoc++;
+    }
+
+    private void removeDoc(Long bookId) {
+        Integer doc = docsByBookId.remove(bookId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : docTerms[doc]) {
+            PostingList list = postings.get(term);
+            list.remove(doc);
+            if (list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[doc];
+        docTerms[doc] = null;
+        freeDocs.push(doc);
+    }
+}
@@ -0,0 +1,370 @@
+package org.example.springintro.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.example.springintro.model.Book;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Typo-tolerant lookup over the words of titles and authors. Each query word is
+ * expanded to dictionary terms within a small edit distance: a bigram index
+ * narrows the dictionary to terms sharing enough bigrams, and only a bounded
+ * number of those candidates is checked with a banded edit distance, so the cost
+ * of a query does not grow with the catalog.
+ */
+@Component
+public class BookFuzzyIndex implements BookIndex {
+    public static final int MAX_QUERY_TERMS = 5;
+    private static final int MAX_EDITS = 2;
+    private static final int MAX_CANDIDATES = 5000;
+    private static final int MAX_EXPANSIONS = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Term> terms = new HashMap<>();
+    private List<Term> termsById = new ArrayList<>();
+    private Deque<Integer> freeTermIds = new ArrayDeque<>();
+    private Map<String, RoaringBitmap> termsByGram = new HashMap<>();
+    private Map<Long, String[]> termsByBook = new HashMap<>();
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            termsById.clear();
+            freeTermIds.clear();
+            termsByGram.clear();
+            termsByBook.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BookFuzzyIndex newInstance() {
+        return new BookFuzzyIndex();
+    }
+
+    @Override
+    public void replaceWith(BookIndex rebuilt) {
+        BookFuzzyIndex source = (BookFuzzyIndex) rebuilt;
+        lock.writeLock().lock();
+        try {
+            terms = source.terms;
+            termsById = source.termsById;
+            freeTermIds = source.freeTermIds;
+            termsByGram = source.termsByGram;
+            termsByBook = source.termsByBook;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        Set<String> words = new LinkedHashSet<>(TextTokenizer.tokenize(book.getTitle()));
+        words.addAll(TextTokenizer.tokenize(book.getAuthor()));
+        int doc = Math.toIntExact(book.getId());
+        lock.writeLock().lock();
+        try {
+            removeBook(book.getId());
+            for (String word : words) {
+                terms.computeIfAbsent(word, this::addTerm).books.add(doc);
+            }
+            termsByBook.put(book.getId(), words.toArray(String[]::new));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a page of books containing every query word or a close spelling of
+     * it, fewest total edits first. The suggestion is the query with each word
+     * replaced by its best spelling, given only when no book matches exactly.
+     */
+    public Result search(String query, long offset, int limit) {
+        List<String> words = TextTokenizer.tokenize(query).stream()
+                .distinct()
+                .limit(MAX_QUERY_TERMS)
+                .toList();
+        if (words.isEmpty()) {
+            return new Result(List.of(), 0, null);
+        }
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap[]> levels = new ArrayList<>(words.size());
+            List<String> corrected = new ArrayList<>(words.size());
+            for (String word : words) {
+                List<Match> matches = expand(word);
+                if (matches.isEmpty()) {
+                    return new Result(List.of(), 0, null);
+                }
+                levels.add(levelsByDistance(matches));
+                corrected.add(matches.get(0).term().text);
+            }
+            RoaringBitmap[] tiers = new RoaringBitmap[MAX_EDITS * words.size() + 1];
+            for (int i = 0; i < tiers.length; i++) {
+                tiers[i] = new RoaringBitmap();
+            }
+            collectTiers(levels, 0, null, 0, tiers);
+            String suggestion = tiers[0].isEmpty() && !corrected.equals(words)
+                    ? String.join(" ", corrected)
+                    : null;
+            return new Result(page(tiers, offset, limit), total(tiers), suggestion);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> expand(String word) {
+        int maxEdits = maxEdits(word.length());
+        List<Match> matches = new ArrayList<>();
+        Term exact = terms.get(word);
+        if (exact != null) {
+            matches.add(new Match(exact, 0));
+        }
+        if (maxEdits > 0) {
+            IntIterator candidates = candidates(word, maxEdits).getIntIterator();
+            for (int checked = 0; candidates.hasNext() && checked < MAX_CANDIDATES; checked++) {
+                Term term = termsById.get(candidates.next());
+                if (term == exact || Math.abs(term.text.length() - word.length()) > maxEdits) {
+                    continue;
+                }
+                int distance = distance(word, term.text, maxEdits);
+                if (distance <= maxEdits) {
+                    matches.add(new Match(term, distance));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::distance)
+                .thenComparing(match -> -match.term().books.getCardinality())
+                .thenComparing(match -> match.term().text));
+        return matches.size() > MAX_EXPANSIONS ? matches.subList(0, MAX_EXPANSIONS) : matches;
+    }
+
+    /**
+     * A term within {@code maxEdits} edits (a transposition destroys at most
+     * three bigrams) shares all but {@code 3 * maxEdits} of the word's bigrams,
+     * so it must contain one of the rarest {@code 3 * maxEdits + 1} of them.
+     * Only those postings are scanned; the shared count is then checked against
+     * the remaining bigrams.
+     */
+    private RoaringBitmap candidates(String word, int maxEdits) {
+        List<RoaringBitmap> postings = grams(word).stream()
+                .map(gram -> termsByGram.getOrDefault(gram, new RoaringBitmap()))
+                .sorted(Comparator.comparingInt(RoaringBitmap::getCardinality))
+                .toList();
+        int required = Math.max(1, postings.size() - 3 * maxEdits);
+        RoaringBitmap prefix = RoaringBitmap.or(postings.subList(
+                0, postings.size() - required + 1).iterator());
+        if (required == 1) {
+            return prefix;
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        IntIterator iterator = prefix.getIntIterator();
+        for (int checked = 0; iterator.hasNext() && checked < MAX_CANDIDATES; checked++) {
+            int termId = iterator.next();
+            int shared = 0;
+            for (RoaringBitmap posting : postings) {
+                if (posting.contains(termId)) {
+                    shared++;
+                }
+            }
+            if (shared >= required) {
+                result.add(termId);
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap[] levelsByDistance(List<Match> matches) {
+        RoaringBitmap[] levels = new RoaringBitmap[MAX_EDITS + 1];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new RoaringBitmap();
+        }
+        for (Match match : matches) {
+            levels[match.distance()].or(match.term().books);
+        }
+        RoaringBitmap closer = levels[0].clone();
+        for (int i = 1; i < levels.length; i++) {
+            levels[i].andNot(closer);
+            closer.or(levels[i]);
+        }
+        return levels;
+    }
+
+    private void collectTiers(
+            List<RoaringBitmap[]> levels,
+            int word,
+            RoaringBitmap books,
+            int distance,
+            RoaringBitmap[] tiers
+    ) {
+        if (word == levels.size()) {
+            tiers[distance].or(books);
+            return;
+        }
+        for (int edits = 0; edits <= MAX_EDITS; edits++) {
+            RoaringBitmap level = levels.get(word)[edits];
+            RoaringBitmap next = books == null ? level : RoaringBitmap.and(books, level);
+            if (!next.isEmpty()) {
+                collectTiers(levels, word + 1, next, distance + edits, tiers);
+            }
+        }
+    }
+
+    private List<Long> page(RoaringBitmap[] tiers, long offset, int limit) {
+        List<Long> page = new ArrayList<>(limit);
+        long skip = offset;
+        for (RoaringBitmap tier : tiers) {
+            int cardinality = tier.getCardinality();
+            if (skip >= cardinality) {
+                skip -= cardinality;
+                continue;
+            }
+            page.addAll(CategoryBitmapIndex.page(tier, skip, limit - page.size(), true));
+            skip = 0;
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private long total(RoaringBitmap[] tiers) {
+        long total = 0;
+        for (RoaringBitmap tier : tiers) {
+            total += tier.getCardinality();
+        }
+        return total;
+    }
+
+    private Term addTerm(String text) {
+        int id = freeTermIds.isEmpty() ? termsById.size() : freeTermIds.pop();
+        Term term = new Term(id, text);
+        if (id == termsById.size()) {
+            termsById.add(term);
+        } else {
+            termsById.set(id, term);
+        }
+        for (String gram : grams(text)) {
+            termsByGram.computeIfAbsent(gram, key -> new RoaringBitmap()).add(id);
+        }
+        return term;
+    }
+
+    private void removeBook(Long bookId) {
+        String[] words = termsByBook.remove(bookId);
+        if (words == null) {
+            return;
+        }
+        int doc = Math.toIntExact(bookId);
+        for (String word : words) {
+            Term term = terms.get(word);
+            term.books.remove(doc);
+            if (!term.books.isEmpty()) {
+                continue;
+            }
+            terms.remove(word);
+            for (String gram : grams(word)) {
+                RoaringBitmap posting = termsByGram.get(gram);
+                posting.remove(term.id);
+                if (posting.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+            termsById.set(term.id, null);
+            freeTermIds.push(term.id);
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        String padded = "^" + text + "$";
+        return IntStream.range(0, padded.length() - 1)
+                .mapToObj(i -> padded.substring(i, i + 2))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static int maxEdits(int length) {
+        if (length < 3) {
+            return 0;
+        }
+        return length < 6 ? 1 : MAX_EDITS;
+    }
+
+    /**
+     * Optimal string alignment distance, abandoned as soon as every cell of a
+     * row exceeds {@code maxEdits}; returns {@code maxEdits + 1} in that case.
+     */
+    static int distance(String source, String target, int maxEdits) {
+        int[] previousPrevious = new int[target.length() + 1];
+        int[] previous = new int[target.length() + 1];
+        int[] current = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= source.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= target.length(); j++) {
+                int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+                        previous[j - 1] + cost);
+                if (i > 1 && j > 1 && source.charAt(i - 1) == target.charAt(j - 2)
+                        && source.charAt(i - 2) == target.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[target.length()], maxEdits + 1);
+    }
+
+    public record Result(List<Long> bookIds, long total, String suggestion) {
+    }
+
+    private record Match(Term term, int distance) {
+    }
+
+    private static final class Term {
+        private final int id;
+        private final String text;
+        private final RoaringBitmap books = new RoaringBitmap();
+
+        private Term(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+}
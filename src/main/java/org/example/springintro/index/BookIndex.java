@@ -0,0 +1,43 @@
+package org.example.springintro.index;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.example.springintro.model.Book;
+
+public interface BookIndex {
+    void clear();
+
+    /**
+     * Returns a new, empty index of the same kind. A rebuild fills it off to
+     * the side and then hands it to {@link #replaceWith}.
+     */
+    BookIndex newInstance();
+
+    /**
+     * Takes over the contents of an index returned by {@link #newInstance}
+     * in one step, so readers never see a partly built index.
+     */
+    void replaceWith(BookIndex rebuilt);
+
+    void index(Book book);
+
+    default void indexAll(List<Book> books) {
+        books.forEach(this::index);
+    }
+
+    void remove(Long bookId);
+
+    /**
+     * Applies new prices to already indexed books. Indexes that do not keep
+     * prices ignore the update.
+     */
+    default void updatePrices(Map<Long, BigDecimal> prices) {
+    }
+
+    /**
+     * Drops a deleted category. Indexes that do not keep categories ignore it.
+     */
+    default void removeCategory(Long categoryId) {
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.springintro.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.BookIndexesRebuiltEvent;
+import org.example.springintro.event.BookPricesChangedEvent;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.event.CategoryDeletedEvent;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.example.springintro.repository.book.BookCategoryIdView;
+import org.example.springintro.repository.book.BookRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@RequiredArgsConstructor
+@Component
+public class BookIndexManager {
+    private final BookRepository bookRepository;
+    private final List<BookIndex> bookIndexes;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private List<Consumer<BookIndex>> pendingChanges;
+
+    /**
+     * Fills fresh indexes while the live ones keep serving, replays the
+     * changes that arrived in the meantime and then swaps the fresh ones in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        List<BookIndex> rebuiltIndexes = bookIndexes.stream()
+                .map(BookIndex::newInstance)
+                .toList();
+        try {
+            long lastId = 0;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findTop500ByIdGreaterThanOrderByIdAsc(lastId);
+                attachCategories(batch);
+                for (BookIndex index : rebuiltIndexes) {
+                    index.indexAll(batch);
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (!batch.isEmpty());
+            synchronized (this) {
+                for (int i = 0; i < bookIndexes.size(); i++) {
+                    BookIndex rebuilt = rebuiltIndexes.get(i);
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    bookIndexes.get(i).replaceWith(rebuilt);
+                }
+            }
+        } finally {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+        eventPublisher.publishEvent(new BookIndexesRebuiltEvent());
+    }
+
+    @EventListener
+    public void onBookSaved(BookSavedEvent event) {
+        apply(index -> index.index(event.book()));
+    }
+
+    @EventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        apply(index -> index.remove(event.bookId()));
+    }
+
+    @EventListener
+    public void onBookPricesChanged(BookPricesChangedEvent event) {
+        apply(index -> index.updatePrices(event.prices()));
+    }
+
+    @TransactionalEventListener
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        apply(index -> index.removeCategory(event.categoryId()));
+    }
+
+    private synchronized void apply(Consumer<BookIndex> change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        bookIndexes.forEach(change);
+    }
+
+    private void attachCategories(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        Map<Long, Book> booksById = new HashMap<>();
+        for (Book book : books) {
+            book.setCategories(new HashSet<>());
+            booksById.put(book.getId(), book);
+        }
+        for (BookCategoryIdView view
+                : bookRepository.findCategoryIdsByBookIds(booksById.keySet())) {
+            Category category = new Category();
+            category.setId(view.getCategoryId());
+            booksById.get(view.getBookId()).getCategories().add(category);
+        }
+    }
+}
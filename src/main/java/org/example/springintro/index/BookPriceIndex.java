@@ -0,0 +1,225 @@
+package org.example.springintro.index;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.springintro.model.Book;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Book ids ordered by (price, id) in two parallel primitive arrays, so a price
+ * range is two binary searches and a price-sorted page is a slice of the arrays.
+ * Writes only record the changed ids; the next read merges them into the
+ * previous arrays in one pass instead of re-sorting the whole catalog.
+ */
+@Component
+public class BookPriceIndex implements BookIndex {
+    private static final Comparator<Map.Entry<Long, Long>> PRICE_ORDER =
+            Map.Entry.<Long, Long>comparingByValue()
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+
+    private Map<Long, Long> pricesByBook = new HashMap<>();
+    private RoaringBitmap changedBooks = new RoaringBitmap();
+    private Snapshot merged = Snapshot.EMPTY;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Override
+    public synchronized void clear() {
+        pricesByBook.clear();
+        changedBooks.clear();
+        merged = Snapshot.EMPTY;
+        snapshot = Snapshot.EMPTY;
+    }
+
+    @Override
+    public BookPriceIndex newInstance() {
+        return new BookPriceIndex();
+    }
+
+    @Override
+    public synchronized void replaceWith(BookIndex rebuilt) {
+        BookPriceIndex source = (BookPriceIndex) rebuilt;
+        pricesByBook = source.pricesByBook;
+        changedBooks = source.changedBooks;
+        merged = source.merged;
+        snapshot = null;
+    }
+
+    @Override
+    public synchronized void index(Book book) {
+        pricesByBook.put(book.getId(), toCents(book.getPrice()));
+        markChanged(book.getId());
+    }
+
+    @Override
+    public synchronized void remove(Long bookId) {
+        if (pricesByBook.remove(bookId) != null) {
+            markChanged(bookId);
+        }
+    }
+
+    @Override
+    public synchronized void updatePrices(Map<Long, BigDecimal> prices) {
+        prices.forEach((bookId, price) -> {
+            if (pricesByBook.computeIfPresent(bookId, (id, cents) -> toCents(price)) != null) {
+                markChanged(bookId);
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of books priced within the inclusive range; a null bound
+     * is left open.
+     */
+    public RoaringBitmap match(BigDecimal minPrice, BigDecimal maxPrice) {
+        Snapshot current = snapshot();
+        RoaringBitmap result = new RoaringBitmap();
+        int end = current.upperBound(maxPrice);
+        for (int i = current.lowerBound(minPrice); i < end; i++) {
+            result.add((int) current.ids()[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a page of book ids in the price range ordered by (price, id),
+     * skipping ids outside {@code filter} when one is given.
+     */
+    public List<Long> page(
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            RoaringBitmap filter,
+            long offset,
+            int limit,
+            boolean ascending
+    ) {
+        Snapshot current = snapshot();
+        int start = current.lowerBound(minPrice);
+        int end = current.upperBound(maxPrice);
+        if (start >= end) {
+            return List.of();
+        }
+        List<Long> page = new ArrayList<>(limit);
+        if (filter == null) {
+            long from = Math.min(offset, end - start);
+            int size = (int) Math.min(limit, end - start - from);
+            for (int i = 0; i < size; i++) {
+                page.add(current.ids()[ascending
+                        ? start + (int) from + i
+                        : end - 1 - (int) from - i]);
+            }
+            return page;
+        }
+        long skipped = 0;
+        for (int i = 0; i < end - start && page.size() < limit; i++) {
+            long bookId = current.ids()[ascending ? start + i : end - 1 - i];
+            if (filter.contains((int) bookId) && skipped++ >= offset) {
+                page.add(bookId);
+            }
+        }
+        return page;
+    }
+
+    private void markChanged(Long bookId) {
+        changedBooks.add(bookId.intValue());
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                merged = merge(merged);
+                changedBooks.clear();
+                snapshot = merged;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Drops the changed books from {@code base} and merges their current
+     * entries back in, keeping the (price, id) order.
+     */
+    private Snapshot merge(Snapshot base) {
+        List<Map.Entry<Long, Long>> changes = new ArrayList<>();
+        changedBooks.forEach((int bookId) -> {
+            Long cents = pricesByBook.get((long) bookId);
+            if (cents != null) {
+                changes.add(Map.entry((long) bookId, cents));
+            }
+        });
+        changes.sort(PRICE_ORDER);
+        long[] prices = new long[base.ids().length + changes.size()];
+        long[] ids = new long[prices.length];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < base.ids().length; i++) {
+            long bookId = base.ids()[i];
+            if (changedBooks.contains((int) bookId)) {
+                continue;
+            }
+            long cents = base.priceCents()[i];
+            while (next < changes.size() && isBefore(changes.get(next), cents, bookId)) {
+                prices[size] = changes.get(next).getValue();
+                ids[size++] = changes.get(next++).getKey();
+            }
+            prices[size] = cents;
+            ids[size++] = bookId;
+        }
+        for (; next < changes.size(); next++) {
+            prices[size] = changes.get(next).getValue();
+            ids[size++] = changes.get(next).getKey();
+        }
+        return new Snapshot(Arrays.copyOf(prices, size), Arrays.copyOf(ids, size));
+    }
+
+    private static boolean isBefore(Map.Entry<Long, Long> change, long cents, long bookId) {
+        return change.getValue() < cents || change.getValue() == cents && change.getKey() < bookId;
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price == null ? 0L : price.movePointRight(2).longValue();
+    }
+
+    private record Snapshot(long[] priceCents, long[] ids) {
+        static final Snapshot EMPTY = new Snapshot(new long[0], new long[0]);
+
+        int lowerBound(BigDecimal minPrice) {
+            return minPrice == null
+                    ? 0
+                    : firstAbove(minPrice.movePointRight(2)
+                            .setScale(0, RoundingMode.CEILING).longValue() - 1);
+        }
+
+        int upperBound(BigDecimal maxPrice) {
+            return maxPrice == null
+                    ? ids.length
+                    : firstAbove(maxPrice.movePointRight(2)
+                            .setScale(0, RoundingMode.FLOOR).longValue());
+        }
+
+        private int firstAbove(long cents) {
+            int low = 0;
+            int high = priceCents.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (priceCents[middle] <= cents) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.example.springintro.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.springintro.model.Book;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content similarity over title, author and description. Each book's word
+ * shingles are reduced to a MinHash signature, and the signature is split into
+ * bands that are hashed into buckets, so a lookup only scores the books that
+ * share at least one band with the query book instead of the whole catalog.
+ */
+@Component
+public class BookSimilarityIndex implements BookIndex {
+    static final int BANDS = 32;
+    static final int ROWS = 4;
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS;
+    private static final long[] SEEDS = new long[SIGNATURE_LENGTH];
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, int[]> signatures = new HashMap<>();
+    private Map<Long, RoaringBitmap> buckets = new HashMap<>();
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            signatures.clear();
+            buckets.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BookSimilarityIndex newInstance() {
+        return new BookSimilarityIndex();
+    }
+
+    @Override
+    public void replaceWith(BookIndex rebuilt) {
+        BookSimilarityIndex source = (BookSimilarityIndex) rebuilt;
+        lock.writeLock().lock();
+        try {
+            signatures = source.signatures;
+            buckets = source.buckets;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        store(book.getId(), signature(book));
+    }
+
+    /**
+     * Computes the batch's signatures on the fork/join pool and then adds them
+     * under a single write lock.
+     */
+    @Override
+    public void indexAll(List<Book> books) {
+        List<int[]> batch = books.parallelStream()
+                .map(BookSimilarityIndex::signature)
+                .toList();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < books.size(); i++) {
+                storeLocked(books.get(i).getId(), batch.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the books most similar to the given one, by estimated
+     * Jaccard similarity of their shingle sets.
+     */
+    public List<Long> similar(Long bookId, int limit) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(bookId);
+            if (signature == null) {
+                return List.of();
+            }
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (int band = 0; band < BANDS; band++) {
+                RoaringBitmap bucket = buckets.get(bandKey(signature, band));
+                if (bucket != null) {
+                    candidates.or(bucket);
+                }
+            }
+            candidates.remove(Math.toIntExact(bookId));
+            candidates.forEach((int candidate) -> {
+                long candidateId = Integer.toUnsignedLong(candidate);
+                matches.add(new Match(candidateId,
+                        similarity(signature, signatures.get(candidateId))));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.stream()
+                .sorted(Comparator.comparingDouble(Match::similarity).reversed()
+                        .thenComparingLong(Match::bookId))
+                .limit(limit)
+                .map(Match::bookId)
+                .toList();
+    }
+
+    static int[] signature(Book book) {
+        Set<String> shingles = shingles(book);
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long hash = hash(shingle);
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                int value = (int) (mix(hash ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] left, int[] right) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (left[i] == right[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    private void store(Long bookId, int[] signature) {
+        lock.writeLock().lock();
+        try {
+            storeLocked(bookId, signature);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void storeLocked(Long bookId, int[] signature) {
+        removeLocked(bookId);
+        if (signature == null) {
+            return;
+        }
+        signatures.put(bookId, signature);
+        int doc = Math.toIntExact(bookId);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), key -> new RoaringBitmap())
+                    .add(doc);
+        }
+    }
+
+    private void removeLocked(Long bookId) {
+        int[] signature = signatures.remove(bookId);
+        if (signature == null) {
+            return;
+        }
+        int doc = Math.toIntExact(bookId);
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            RoaringBitmap bucket = buckets.get(key);
+            if (bucket != null && bucket.checkedRemove(doc) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> shingles(Book book) {
+        Set<String> shingles = new HashSet<>();
+        for (String field : new String[]{book.getTitle(), book.getAuthor(),
+                book.getDescription()}) {
+            List<String> tokens = TextTokenizer.tokenize(field);
+            if (tokens.size() == 1) {
+                shingles.add(tokens.get(0));
+            }
+            for (int i = 1; i < tokens.size(); i++) {
+                shingles.add(tokens.get(i - 1) + ' ' + tokens.get(i));
+            }
+        }
+        return shingles;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    private static long hash(String shingle) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < shingle.length(); i++) {
+            hash = (hash ^ shingle.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ value >>> 30) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ value >>> 27) * 0x94d049bb133111ebL;
+        return value ^ value >>> 31;
+    }
+
+    private record Match(long bookId, double similarity) {
+    }
+}
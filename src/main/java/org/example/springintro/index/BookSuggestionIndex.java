@@ -0,0 +1,172 @@
+package org.example.springintro.index;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.example.springintro.dto.book.BookSuggestionDto;
+import org.example.springintro.model.Book;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookSuggestionIndex implements BookIndex {
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final long REBUILD_DELAY_MILLIS = 200;
+
+    private Map<SuggestionKey, Suggestion> suggestions = new HashMap<>();
+    private Map<Long, SuggestionKey[]> keysByBookId = new HashMap<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "book-suggestion-rebuilder");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private volatile Snapshot snapshot = new Snapshot(new SuggestionTrie(
+            new String[0], new long[0], MAX_SUGGESTIONS), new BookSuggestionDto[0]);
+
+    @Override
+    public void clear() {
+        synchronized (this) {
+            suggestions.clear();
+            keysByBookId.clear();
+        }
+        scheduleRebuild();
+    }
+
+    @Override
+    public BookSuggestionIndex newInstance() {
+        return new BookSuggestionIndex();
+    }
+
+    /**
+     * Takes over the rebuilt suggestions and builds the trie right away
+     * instead of scheduling it, then stops the rebuilt index's own rebuilder.
+     */
+    @Override
+    public void replaceWith(BookIndex rebuilt) {
+        BookSuggestionIndex source = (BookSuggestionIndex) rebuilt;
+        source.shutdown();
+        synchronized (this) {
+            suggestions = source.suggestions;
+            keysByBookId = source.keysByBookId;
+        }
+        rebuild();
+    }
+
+    @Override
+    public void index(Book book) {
+        synchronized (this) {
+            removeKeys(book.getId());
+            SuggestionKey[] keys = {
+                    add(book.getTitle(), BookSuggestionDto.Type.TITLE),
+                    add(book.getAuthor(), BookSuggestionDto.Type.AUTHOR)
+            };
+            keysByBookId.put(book.getId(), keys);
+        }
+        scheduleRebuild();
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        synchronized (this) {
+            removeKeys(bookId);
+        }
+        scheduleRebuild();
+    }
+
+    public List<BookSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = TextTokenizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        int[] matches = current.trie().lookup(normalized);
+        return Arrays.stream(matches)
+                .limit(limit)
+                .mapToObj(match -> current.suggestions()[match])
+                .toList();
+    }
+
+    public void rebuild() {
+        rebuildScheduled.set(false);
+        List<Map.Entry<SuggestionKey, Suggestion>> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(suggestions.entrySet());
+        }
+        entries.sort(Map.Entry.comparingByKey(SuggestionKey.ORDER));
+        String[] keys = new String[entries.size()];
+        long[] weights = new long[entries.size()];
+        BookSuggestionDto[] values = new BookSuggestionDto[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Suggestion suggestion = entries.get(i).getValue();
+            keys[i] = entries.get(i).getKey().text();
+            weights[i] = suggestion.books;
+            values[i] = new BookSuggestionDto(suggestion.text, suggestion.type);
+        }
+        snapshot = new Snapshot(new SuggestionTrie(keys, weights, MAX_SUGGESTIONS), values);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private SuggestionKey add(String text, BookSuggestionDto.Type type) {
+        SuggestionKey key = new SuggestionKey(TextTokenizer.normalize(text), type);
+        if (!key.text().isEmpty()) {
+            suggestions.computeIfAbsent(key, k -> new Suggestion(text.trim(), type)).books++;
+        }
+        return key;
+    }
+
+    private void removeKeys(Long bookId) {
+        SuggestionKey[] keys = keysByBookId.remove(bookId);
+        if (keys == null) {
+            return;
+        }
+        for (SuggestionKey key : keys) {
+            Suggestion suggestion = suggestions.get(key);
+            if (suggestion != null && --suggestion.books == 0) {
+                suggestions.remove(key);
+            }
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuild, REBUILD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Suggestion {
+        private final String text;
+        private final BookSuggestionDto.Type type;
+        private long books;
+
+        private Suggestion(String text, BookSuggestionDto.Type type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    /**
+     * A title and an author with the same normalized text are separate
+     * suggestions.
+     */
+    private record SuggestionKey(String text, BookSuggestionDto.Type type) {
+        static final Comparator<SuggestionKey> ORDER = Comparator
+                .comparing(SuggestionKey::text)
+                .thenComparing(SuggestionKey::type);
+    }
+
+    private record Snapshot(SuggestionTrie trie, BookSuggestionDto[] suggestions) {
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.springintro.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryBitmapIndex implements BookIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, RoaringBitmap> booksByCategory = new HashMap<>();
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            booksByCategory.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CategoryBitmapIndex newInstance() {
+        return new CategoryBitmapIndex();
+    }
+
+    @Override
+    public void replaceWith(BookIndex rebuilt) {
+        Map<Long, RoaringBitmap> rebuiltBooks = ((CategoryBitmapIndex) rebuilt).booksByCategory;
+        lock.writeLock().lock();
+        try {
+            booksByCategory = rebuiltBooks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        int doc = toDoc(book.getId());
+        Set<Long> categoryIds = new HashSet<>();
+        for (Category category : book.getCategories()) {
+            categoryIds.add(category.getId());
+        }
+        lock.writeLock().lock();
+        try {
+            removeDoc(doc, categoryIds);
+            for (Long categoryId : categoryIds) {
+                booksByCategory.computeIfAbsent(categoryId, id -> new RoaringBitmap()).add(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(toDoc(bookId), Set.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            booksByCategory.remove(categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of books in all ({@code matchAll}) or any of the categories.
+     * The result is a private copy, safe to read without holding the index lock.
+     */
+    public RoaringBitmap match(Collection<Long> categoryIds, boolean matchAll) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> bitmaps = new ArrayList<>(categoryIds.size());
+            for (Long categoryId : new HashSet<>(categoryIds)) {
+                RoaringBitmap bitmap = booksByCategory.get(categoryId);
+                if (bitmap == null && matchAll) {
+                    return new RoaringBitmap();
+                }
+                if (bitmap != null) {
+                    bitmaps.add(bitmap);
+                }
+            }
+            if (bitmaps.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            if (!matchAll) {
+                return RoaringBitmap.or(bitmaps.iterator());
+            }
+            bitmaps.sort((left, right) ->
+                    Integer.compare(left.getCardinality(), right.getCardinality()));
+            RoaringBitmap result = bitmaps.get(0).clone();
+            for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+                result.and(bitmaps.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<Long> page(
+            RoaringBitmap bookIds,
+            long offset,
+            int limit,
+            boolean ascending
+    ) {
+        int cardinality = bookIds.getCardinality();
+        if (offset >= cardinality) {
+            return List.of();
+        }
+        long firstRank = ascending ? offset : Math.max(0, cardinality - offset - limit);
+        int size = (int) Math.min(limit, cardinality - offset);
+        List<Long> page = new ArrayList<>(size);
+        PeekableIntIterator iterator = bookIds.getIntIterator();
+        iterator.advanceIfNeeded(bookIds.select((int) firstRank));
+        while (page.size() < size) {
+            page.add(Integer.toUnsignedLong(iterator.next()));
+        }
+        if (!ascending) {
+            Collections.reverse(page);
+        }
+        return page;
+    }
+
+    private void removeDoc(int doc, Set<Long> keep) {
+        Iterator<Map.Entry<Long, RoaringBitmap>> iterator = booksByCategory.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, RoaringBitmap> entry = iterator.next();
+            if (!keep.contains(entry.getKey()) && entry.getValue().checkedRemove(doc)
+                    && entry.getValue().isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int toDoc(Long bookId) {
+        return Math.toIntExact(bookId);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.springintro.index;
+
+import java.util.Arrays;
+
+final class PostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] docs = new int[INITIAL_CAPACITY];
+    private float[] frequencies = new float[INITIAL_CAPACITY];
+    private int size;
+
+    void add(int doc, float frequency) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+        int position = size;
+        while (position > 0 && docs[position - 1] > doc) {
+            position--;
+        }
+        System.arraycopy(docs, position, docs, position + 1, size - position);
+        System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+        docs[position] = doc;
+        frequencies[position] = frequency;
+        size++;
+    }
+
+    void remove(int doc) {
+        int position = Arrays.binarySearch(docs, 0, size, doc);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+        System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    float frequency(int index) {
+        return frequencies[index];
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.springintro.index;
+
+import java.util.Arrays;
+
+final class ScoreAccumulator {
+    private static final int EMPTY = -1;
+
+    private final int[] docs;
+    private final float[] scores;
+    private final int mask;
+    private int size;
+
+    ScoreAccumulator(int expectedDocs) {
+        int capacity = Integer.highestOneBit(Math.max(expectedDocs, 2) * 2 - 1) << 1;
+        docs = new int[capacity];
+        scores = new float[capacity];
+        mask = capacity - 1;
+        Arrays.fill(docs, EMPTY);
+    }
+
+    void add(int doc, float score) {
+        int slot = (doc * 0x9E3779B9) & mask;
+        while (docs[slot] != EMPTY && docs[slot] != doc) {
+            slot = (slot + 1) & mask;
+        }
+        if (docs[slot] == EMPTY) {
+            docs[slot] = doc;
+            size++;
+        }
+        scores[slot] += score;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] docs() {
+        int[] result = new int[size];
+        int position = 0;
+        for (int doc : docs) {
+            if (doc != EMPTY) {
+                result[position++] = doc;
+            }
+        }
+        return result;
+    }
+
+    int[] top(int count) {
+        int limit = Math.min(count, size);
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int slot = 0; slot < docs.length; slot++) {
+            if (docs[slot] == EMPTY) {
+                continue;
+            }
+            if (heapSize < limit) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++);
+            } else if (limit > 0 && ranksBefore(slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, heapSize);
+            }
+        }
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = docs[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i);
+        }
+        return result;
+    }
+
+    private boolean ranksBefore(int slot, int other) {
+        if (scores[slot] != scores[other]) {
+            return scores[slot] > scores[other];
+        }
+        return docs[slot] < docs[other];
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!ranksBefore(heap[parent], heap[index])) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= heapSize) {
+                return;
+            }
+            if (child + 1 < heapSize && ranksBefore(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksBefore(heap[index], heap[child])) {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heap, int first, int second) {
+        int tmp = heap[first];
+        heap[first] = heap[second];
+        heap[second] = tmp;
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.springintro.index;
+
+import java.util.Arrays;
+
+/**
+ * Immutable radix trie over sorted keys. Edge labels are stored as offsets into
+ * the keys themselves and every node keeps its precomputed top-K entries, so a
+ * lookup costs one walk down the prefix and no subtree scan. Equal keys are
+ * kept as separate entries ending at the same node.
+ */
+final class SuggestionTrie {
+    private final String[] keys;
+    private final long[] weights;
+    private final int topSize;
+    private int[] labelKey = new int[16];
+    private int[] labelStart = new int[16];
+    private int[] labelEnd = new int[16];
+    private int[] firstChild = new int[16];
+    private int[] childCount = new int[16];
+    private int[][] top = new int[16][];
+    private int nodeCount;
+
+    SuggestionTrie(String[] sortedKeys, long[] weights, int topSize) {
+        this.keys = sortedKeys;
+        this.weights = weights;
+        this.topSize = topSize;
+        if (keys.length > 0) {
+            int root = allocate();
+            build(root, 0, keys.length, 0);
+        }
+        labelKey = Arrays.copyOf(labelKey, nodeCount);
+        labelStart = Arrays.copyOf(labelStart, nodeCount);
+        labelEnd = Arrays.copyOf(labelEnd, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        childCount = Arrays.copyOf(childCount, nodeCount);
+        top = Arrays.copyOf(top, nodeCount);
+    }
+
+    int[] lookup(String prefix) {
+        if (nodeCount == 0) {
+            return new int[0];
+        }
+        int node = 0;
+        int position = 0;
+        while (true) {
+            String key = keys[labelKey[node]];
+            for (int i = labelStart[node]; i < labelEnd[node]; i++, position++) {
+                if (position == prefix.length()) {
+                    return top[node];
+                }
+                if (key.charAt(i) != prefix.charAt(position)) {
+                    return new int[0];
+                }
+            }
+            if (position == prefix.length()) {
+                return top[node];
+            }
+            node = findChild(node, prefix.charAt(position));
+            if (node < 0) {
+                return new int[0];
+            }
+        }
+    }
+
+    private int findChild(int node, char next) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = keys[labelKey[middle]].charAt(labelStart[middle]);
+            if (label < next) {
+                low = middle + 1;
+            } else if (label > next) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private void build(int node, int low, int high, int depth) {
+        int end = commonPrefixLength(keys[low], keys[high - 1]);
+        labelKey[node] = low;
+        labelStart[node] = depth;
+        labelEnd[node] = end;
+        int childLow = low;
+        while (childLow < high && keys[childLow].length() == end) {
+            childLow++;
+        }
+        int children = 0;
+        for (int i = childLow; i < high; i++) {
+            if (i == childLow || keys[i].charAt(end) != keys[i - 1].charAt(end)) {
+                children++;
+            }
+        }
+        int first = nodeCount;
+        for (int i = 0; i < children; i++) {
+            allocate();
+        }
+        firstChild[node] = first;
+        childCount[node] = children;
+        int child = first;
+        int groupStart = childLow;
+        for (int i = childLow + 1; i <= high; i++) {
+            if (i == high || keys[i].charAt(end) != keys[groupStart].charAt(end)) {
+                build(child++, groupStart, i, end);
+                groupStart = i;
+            }
+        }
+        top[node] = mergeTop(low, childLow, first, children);
+    }
+
+    private int[] mergeTop(int terminalLow, int terminalHigh, int first, int children) {
+        int total = terminalHigh - terminalLow;
+        for (int i = first; i < first + children; i++) {
+            total += top[i].length;
+        }
+        int[] candidates = new int[total];
+        int position = 0;
+        for (int terminal = terminalLow; terminal < terminalHigh; terminal++) {
+            candidates[position++] = terminal;
+        }
+        for (int i = first; i < first + children; i++) {
+            System.arraycopy(top[i], 0, candidates, position, top[i].length);
+            position += top[i].length;
+        }
+        return Arrays.stream(candidates)
+                .boxed()
+                .sorted((left, right) -> weights[left] != weights[right]
+                        ? Long.compare(weights[right], weights[left])
+                        : Integer.compare(left, right))
+                .limit(topSize)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private int allocate() {
+        if (nodeCount == labelKey.length) {
+            int capacity = nodeCount * 2;
+            labelKey = Arrays.copyOf(labelKey, capacity);
+            labelStart = Arrays.copyOf(labelStart, capacity);
+            labelEnd = Arrays.copyOf(labelEnd, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            top = Arrays.copyOf(top, capacity);
+        }
+        return nodeCount++;
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        for (int i = 0; i < length; i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                return i;
+            }
+        }
+        return length;
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
@@ -22,7 +23,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Entity
 @Setter
 @Getter
-@SQLDelete(sql = "UPDATE books SET is_deleted = TRUE WHERE id = ?")
+@SQLDelete(sql = "UPDATE books SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP,"
+        + " version = version + 1 WHERE id = ? AND version = ?")
 @SQLRestriction(value = "is_deleted = FALSE")
 @Table(name = "books")
 public class Book {
@@ -41,6 +43,9 @@ public class Book {
     private String coverImage;
     @Column(nullable = false)
     private boolean isDeleted = false;
+    @Version
+    @Column(nullable = false)
+    private Long version;
     @ManyToMany
     @JoinTable(
             name = "books_categories",
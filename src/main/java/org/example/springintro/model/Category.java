@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.SQLDelete;
@@ -14,7 +15,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Entity
 @Setter
 @Getter
-@SQLDelete(sql = "UPDATE categories SET is_deleted = TRUE WHERE id = ?")
+@SQLDelete(sql = "UPDATE categories SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP,"
+        + " version = version + 1 WHERE id = ? AND version = ?")
 @SQLRestriction(value = "is_deleted = FALSE")
 @Table(name = "categories")
 public class Category {
@@ -26,4 +28,7 @@ public class Category {
     private String description;
     @Column(nullable = false)
     private boolean isDeleted = false;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -27,7 +27,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Entity
 @Setter
 @Getter
-@SQLDelete(sql = "UPDATE orders SET is_deleted = TRUE WHERE id = ?")
+@SQLDelete(sql = "UPDATE orders SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP"
+        + " WHERE id = ?")
 @SQLRestriction(value = "is_deleted = FALSE")
 @Table(name = "orders")
 public class Order {
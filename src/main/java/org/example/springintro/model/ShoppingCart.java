@@ -23,7 +23,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Entity
 @Setter
 @Getter
-@SQLDelete(sql = "UPDATE shopping_carts SET is_deleted = TRUE WHERE id = ?")
+@SQLDelete(sql = "UPDATE shopping_carts SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP"
+        + " WHERE id = ?")
 @SQLRestriction(value = "is_deleted = FALSE")
 @Table(name = "shopping_carts")
 public class ShoppingCart {
@@ -0,0 +1,192 @@
+package org.example.springintro.ranking;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.OrderPlacedEvent;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Units sold per book, maintained from committed orders instead of aggregating
+ * {@code order_items} per request. All-time sales are exact striped counters;
+ * recent sales are a ring of Space-Saving summaries, one per time slot of the
+ * window, merged when read.
+ */
+@Component
+public class BestsellerRanking {
+    private static final String SELECT_TOTALS = """
+            SELECT oi.book_id, SUM(oi.quantity) AS units
+            FROM order_items oi JOIN orders o ON o.id = oi.order_id
+            WHERE o.is_deleted = FALSE
+            GROUP BY oi.book_id""";
+    private static final String SELECT_RECENT = """
+            SELECT oi.book_id, oi.quantity, o.order_date
+            FROM order_items oi JOIN orders o ON o.id = oi.order_id
+            WHERE o.is_deleted = FALSE AND o.order_date >= ?""";
+    private static final Comparator<SalesCount> BY_UNITS = Comparator
+            .comparingLong(SalesCount::units)
+            .thenComparing(Comparator.comparingLong(SalesCount::bookId).reversed());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long slotMillis;
+    private final Slot[] slots;
+    private final Map<Long, LongAdder> unitsByBook = new ConcurrentHashMap<>();
+
+    public BestsellerRanking(
+            JdbcTemplate jdbcTemplate,
+            @Value("${books.bestsellers.window:P7D}") Duration window,
+            @Value("${books.bestsellers.slots:7}") int slotCount,
+            @Value("${books.bestsellers.slot-capacity:1000}") int slotCapacity
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slotMillis = Math.max(1, window.toMillis() / slotCount);
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot(new SpaceSavingSketch(slotCapacity));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        unitsByBook.clear();
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                slot.sketch.clear();
+                slot.epoch = Long.MIN_VALUE;
+            }
+        }
+        jdbcTemplate.query(SELECT_TOTALS, resultSet -> {
+            unitsByBook.computeIfAbsent(resultSet.getLong("book_id"), id -> new LongAdder())
+                    .add(resultSet.getLong("units"));
+        });
+        Instant now = Instant.now();
+        Instant since = Instant.ofEpochMilli((epoch(now) - slots.length + 1) * slotMillis);
+        jdbcTemplate.query(SELECT_RECENT, resultSet -> {
+            addRecent(resultSet.getLong("book_id"), resultSet.getInt("quantity"),
+                    resultSet.getTimestamp("order_date").toInstant(), now);
+        }, Timestamp.from(since));
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        record(event.quantities(), event.placedAt(), Instant.now());
+    }
+
+    @EventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        unitsByBook.remove(event.bookId());
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                slot.sketch.remove(event.bookId());
+            }
+        }
+    }
+
+    /**
+     * Returns the best-selling books, optionally restricted to the ids in
+     * {@code filter}, either all time or within the recent window.
+     */
+    public List<SalesCount> top(RoaringBitmap filter, boolean recent, int limit) {
+        return top(filter, recent, limit, Instant.now());
+    }
+
+    List<SalesCount> top(RoaringBitmap filter, boolean recent, int limit, Instant now) {
+        PriorityQueue<SalesCount> best = new PriorityQueue<>(BY_UNITS);
+        if (recent) {
+            recentTotals(now).forEach((bookId, units) -> offer(best, filter, bookId, units, limit));
+        } else {
+            unitsByBook.forEach((bookId, units) ->
+                    offer(best, filter, bookId, units.sum(), limit));
+        }
+        List<SalesCount> result = new ArrayList<>(best);
+        result.sort(BY_UNITS.reversed());
+        return result;
+    }
+
+    void record(Map<Long, Integer> quantities, Instant placedAt, Instant now) {
+        quantities.forEach((bookId, quantity) -> {
+            unitsByBook.computeIfAbsent(bookId, id -> new LongAdder()).add(quantity);
+            addRecent(bookId, quantity, placedAt, now);
+        });
+    }
+
+    private void addRecent(long bookId, long quantity, Instant placedAt, Instant now) {
+        long epoch = epoch(placedAt);
+        if (epoch <= epoch(now) - slots.length) {
+            return;
+        }
+        Slot slot = slots[(int) Math.floorMod(epoch, (long) slots.length)];
+        synchronized (slot) {
+            if (slot.epoch < epoch) {
+                slot.sketch.clear();
+                slot.epoch = epoch;
+            }
+            if (slot.epoch == epoch) {
+                slot.sketch.add(bookId, quantity);
+            }
+        }
+    }
+
+    private Map<Long, Long> recentTotals(Instant now) {
+        long current = epoch(now);
+        Map<Long, Long> totals = new HashMap<>();
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                if (slot.epoch > current - slots.length && slot.epoch <= current) {
+                    slot.sketch.addTo(totals);
+                }
+            }
+        }
+        return totals;
+    }
+
+    private long epoch(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), slotMillis);
+    }
+
+    private static void offer(
+            PriorityQueue<SalesCount> best,
+            RoaringBitmap filter,
+            long bookId,
+            long units,
+            int limit
+    ) {
+        if (units <= 0 || filter != null && !filter.contains((int) bookId)) {
+            return;
+        }
+        SalesCount candidate = new SalesCount(bookId, units);
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (BY_UNITS.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    public record SalesCount(long bookId, long units) {
+    }
+
+    private static final class Slot {
+        private final SpaceSavingSketch sketch;
+        private long epoch = Long.MIN_VALUE;
+
+        private Slot(SpaceSavingSketch sketch) {
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.springintro.ranking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.OrderPlacedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * "Customers also bought" counts: for every book, how many orders contained it
+ * together with each other book. Each book keeps a primitive map of co-purchase
+ * counts that is pruned back to the strongest neighbours once it grows to twice
+ * {@code books.also-bought.max-neighbors}.
+ */
+@Component
+public class CoPurchaseIndex {
+    static final int MAX_BASKET = 50;
+    private static final int BOOTSTRAP_RANGE = 5000;
+    private static final String SELECT_ORDER_RANGE =
+            "SELECT MIN(id), MAX(id) FROM orders WHERE is_deleted = FALSE";
+    private static final String SELECT_BASKETS = """
+            SELECT oi.order_id, oi.book_id
+            FROM order_items oi JOIN orders o ON o.id = oi.order_id
+            WHERE o.is_deleted = FALSE AND oi.order_id BETWEEN ? AND ?
+            ORDER BY oi.order_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxNeighbors;
+    private final int bootstrapThreads;
+    private final Map<Long, LongIntHashMap> neighbors = new ConcurrentHashMap<>();
+
+    public CoPurchaseIndex(
+            JdbcTemplate jdbcTemplate,
+            @Value("${books.also-bought.max-neighbors:100}") int maxNeighbors,
+            @Value("${books.also-bought.bootstrap-threads:4}") int bootstrapThreads
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxNeighbors = maxNeighbors;
+        this.bootstrapThreads = bootstrapThreads;
+    }
+
+    /**
+     * Reloads the counts from {@code order_items}, reading disjoint order id
+     * ranges on several threads.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        neighbors.clear();
+        long[] range = jdbcTemplate.queryForObject(SELECT_ORDER_RANGE, (resultSet, row) ->
+                new long[]{resultSet.getLong(1), resultSet.getLong(2)});
+        if (range == null || range[1] == 0) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, bootstrapThreads));
+        try {
+            List<CompletableFuture<Void>> loads = new ArrayList<>();
+            for (long from = range[0]; from <= range[1]; from += BOOTSTRAP_RANGE) {
+                long to = Math.min(range[1], from + BOOTSTRAP_RANGE - 1);
+                long start = from;
+                loads.add(CompletableFuture.runAsync(() -> load(start, to), executor));
+            }
+            CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        record(event.quantities().keySet());
+    }
+
+    @EventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        LongIntHashMap removed = neighbors.remove(event.bookId());
+        if (removed == null) {
+            return;
+        }
+        List<Long> linked = new ArrayList<>();
+        synchronized (removed) {
+            removed.forEach((bookId, count) -> linked.add(bookId));
+        }
+        for (Long bookId : linked) {
+            LongIntHashMap counts = neighbors.get(bookId);
+            if (counts != null) {
+                synchronized (counts) {
+                    counts.remove(event.bookId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts every pair of distinct books in the basket once. Only the first
+     * {@value #MAX_BASKET} books of a basket are paired.
+     */
+    public void record(Collection<Long> bookIds) {
+        List<Long> basket = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        if (basket.size() > MAX_BASKET) {
+            basket = basket.subList(0, MAX_BASKET);
+        }
+        if (basket.size() < 2) {
+            return;
+        }
+        for (Long bookId : basket) {
+            LongIntHashMap counts = neighbors.computeIfAbsent(bookId, id -> new LongIntHashMap());
+            synchronized (counts) {
+                for (Long other : basket) {
+                    if (!other.equals(bookId)) {
+                        counts.addTo(other, 1);
+                    }
+                }
+                if (counts.size() >= maxNeighbors * 2) {
+                    counts.retainTop(maxNeighbors);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the books most often bought together with the book,
+     * strongest first.
+     */
+    public List<Long> top(Long bookId, int limit) {
+        LongIntHashMap counts = neighbors.get(bookId);
+        if (counts == null) {
+            return List.of();
+        }
+        PriorityQueue<long[]> best = new PriorityQueue<>((left, right) -> left[1] != right[1]
+                ? Long.compare(left[1], right[1])
+                : Long.compare(right[0], left[0]));
+        synchronized (counts) {
+            counts.forEach((other, count) -> {
+                best.add(new long[]{other, count});
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+        }
+        List<Long> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll()[0]);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void load(long fromOrderId, long toOrderId) {
+        List<Long> basket = new ArrayList<>();
+        long[] currentOrder = {0};
+        jdbcTemplate.query(SELECT_BASKETS, resultSet -> {
+            long orderId = resultSet.getLong("order_id");
+            if (orderId != currentOrder[0]) {
+                record(basket);
+                basket.clear();
+                currentOrder[0] = orderId;
+            }
+            basket.add(resultSet.getLong("book_id"));
+        }, fromOrderId, toOrderId);
+        record(basket);
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.springintro.ranking;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from positive long keys to int values, stored in two
+ * parallel primitive arrays with linear probing. Zero marks an empty slot, so
+ * it cannot be used as a key. Not thread-safe.
+ */
+final class LongIntHashMap {
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key must not be zero");
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * 3 / 4) {
+            resize(keys.length * 2);
+        }
+        return delta;
+    }
+
+    int get(long key) {
+        for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return 0;
+    }
+
+    void remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        size--;
+        for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            long movedKey = keys[next];
+            keys[next] = EMPTY;
+            size--;
+            addTo(movedKey, values[next]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Drops all but the {@code limit} entries with the highest values, keeping
+     * smaller keys on ties.
+     */
+    void retainTop(int limit) {
+        if (size <= limit) {
+            return;
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        Integer[] slots = new Integer[size];
+        int count = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                slots[count++] = slot;
+            }
+        }
+        Arrays.sort(slots, (left, right) -> oldValues[left] != oldValues[right]
+                ? Integer.compare(oldValues[right], oldValues[left])
+                : Long.compare(oldKeys[left], oldKeys[right]));
+        allocate(capacityFor(limit));
+        for (int i = 0; i < limit; i++) {
+            addTo(oldKeys[slots[i]], oldValues[slots[i]]);
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                addTo(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < entries + 1) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, int value);
+    }
+}
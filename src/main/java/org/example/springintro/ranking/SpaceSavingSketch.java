@@ -0,0 +1,67 @@
+package org.example.springintro.ranking;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving heavy hitters summary with at most {@code capacity} counters.
+ * A new key arriving at a full summary takes over the smallest counter, so
+ * every key whose weight exceeds total / capacity is kept and a kept count
+ * overestimates the true one by at most the count it took over. Not thread-safe.
+ */
+final class SpaceSavingSketch {
+    private final int capacity;
+    private final Map<Long, Long> counts = new HashMap<>();
+    private final TreeMap<Long, Set<Long>> keysByCount = new TreeMap<>();
+
+    SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Sketch capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    void add(long key, long weight) {
+        Long count = counts.get(key);
+        if (count != null) {
+            unlink(key, count);
+        } else if (counts.size() < capacity) {
+            count = 0L;
+        } else {
+            Map.Entry<Long, Set<Long>> smallest = keysByCount.firstEntry();
+            long victim = smallest.getValue().iterator().next();
+            unlink(victim, smallest.getKey());
+            counts.remove(victim);
+            count = smallest.getKey();
+        }
+        counts.put(key, count + weight);
+        keysByCount.computeIfAbsent(count + weight, ignored -> new LinkedHashSet<>()).add(key);
+    }
+
+    void remove(long key) {
+        Long count = counts.remove(key);
+        if (count != null) {
+            unlink(key, count);
+        }
+    }
+
+    void clear() {
+        counts.clear();
+        keysByCount.clear();
+    }
+
+    void addTo(Map<Long, Long> totals) {
+        counts.forEach((key, count) -> totals.merge(key, count, Long::sum));
+    }
+
+    private void unlink(long key, long count) {
+        Set<Long> keys = keysByCount.get(count);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            keysByCount.remove(count);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.springintro.repository.book;
+
+public interface BookCategoryIdView {
+    Long getBookId();
+
+    Long getCategoryId();
+}
@@ -0,0 +1,98 @@
+package org.example.springintro.repository.book;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.model.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public record BookCursor(String property, Sort.Direction direction, String value, Long id) {
+    public static final String ID = "id";
+    public static final String PRICE = "price";
+    private static final Set<String> SORTABLE = Set.of(ID, "title", "author", "isbn", PRICE);
+    private static final String SEPARATOR = "\n";
+
+    public static BookCursor first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!SORTABLE.contains(order.getProperty())) {
+            throw new InvalidRequestException("Can't scroll books sorted by "
+                    + order.getProperty());
+        }
+        return new BookCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    public static BookCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            BookCursor cursor = new BookCursor(parts[0], Sort.Direction.fromString(parts[1]),
+                    parts[3], Long.valueOf(parts[2]));
+            if (!SORTABLE.contains(cursor.property())) {
+                throw new IllegalArgumentException(cursor.property());
+            }
+            cursor.typedValue();
+            return cursor;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    public BookCursor next(BookDto last) {
+        Object key = switch (property) {
+            case "title" -> last.getTitle();
+            case "author" -> last.getAuthor();
+            case "isbn" -> last.getIsbn();
+            case "price" -> last.getPrice().toPlainString();
+            default -> last.getId();
+        };
+        return new BookCursor(property, direction, String.valueOf(key), last.getId());
+    }
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort sort() {
+        Sort sort = Sort.by(direction, property);
+        return ID.equals(property) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Specification<Book> toSpecification() {
+        if (id == null) {
+            return Specification.where(null);
+        }
+        boolean ascending = direction.isAscending();
+        return (root, query, criteriaBuilder) -> {
+            if (ID.equals(property)) {
+                return ascending
+                        ? criteriaBuilder.greaterThan(root.get(ID), id)
+                        : criteriaBuilder.lessThan(root.get(ID), id);
+            }
+            Comparable key = typedValue();
+            return criteriaBuilder.or(
+                    ascending
+                            ? criteriaBuilder.greaterThan(root.get(property), key)
+                            : criteriaBuilder.lessThan(root.get(property), key),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get(property), key),
+                            ascending
+                                    ? criteriaBuilder.greaterThan(root.get(ID), id)
+                                    : criteriaBuilder.lessThan(root.get(ID), id)));
+        };
+    }
+
+    private Comparable<?> typedValue() {
+        return switch (property) {
+            case "price" -> new BigDecimal(value);
+            case ID -> Long.valueOf(value);
+            default -> value;
+        };
+    }
+}
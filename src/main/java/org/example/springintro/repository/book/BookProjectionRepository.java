@@ -0,0 +1,14 @@
+package org.example.springintro.repository.book;
+
+import java.util.List;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookProjectionRepository {
+    List<BookDto> findDtos(Specification<Book> specification, Pageable pageable);
+
+    List<BookDto> findDtos(Specification<Book> specification, Sort sort, int limit);
+}
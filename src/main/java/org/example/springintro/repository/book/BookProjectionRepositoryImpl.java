@@ -0,0 +1,77 @@
+package org.example.springintro.repository.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.util.List;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class BookProjectionRepositoryImpl implements BookProjectionRepository {
+    private static final List<String> COLUMNS = List.of(
+            "id", "title", "author", "isbn", "price", "description", "coverImage", "version");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookDto> findDtos(Specification<Book> specification, Pageable pageable) {
+        TypedQuery<Tuple> query = createQuery(specification, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return toDtos(query.getResultList());
+    }
+
+    @Override
+    public List<BookDto> findDtos(Specification<Book> specification, Sort sort, int limit) {
+        return toDtos(createQuery(specification, sort)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    private TypedQuery<Tuple> createQuery(Specification<Book> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        List<Selection<?>> selections = COLUMNS.stream()
+                .<Selection<?>>map(column -> root.get(column).alias(column))
+                .toList();
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+
+    private List<BookDto> toDtos(List<Tuple> tuples) {
+        return tuples.stream()
+                .map(tuple -> {
+                    BookDto dto = new BookDto();
+                    dto.setId(tuple.get("id", Long.class));
+                    dto.setTitle(tuple.get("title", String.class));
+                    dto.setAuthor(tuple.get("author", String.class));
+                    dto.setIsbn(tuple.get("isbn", String.class));
+                    dto.setPrice(tuple.get("price", BigDecimal.class));
+                    dto.setDescription(tuple.get("description", String.class));
+                    dto.setCoverImage(tuple.get("coverImage", String.class));
+                    dto.setVersion(tuple.get("version", Long.class));
+                    return dto;
+                })
+                .toList();
+    }
+}
@@ -1,10 +1,52 @@
 package org.example.springintro.repository.book;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.example.springintro.dto.book.BookDtoWithoutCategoryIds;
 import org.example.springintro.model.Book;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookProjectionRepository {
     List<Book> findAllByCategories_Id(Long categoryId);
+
+    @Query("""
+        SELECT new org.example.springintro.dto.book.BookDtoWithoutCategoryIds(
+            b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage)
+        FROM Book b
+        WHERE b.id IN :ids
+        ORDER BY b.id""")
+    List<BookDtoWithoutCategoryIds> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Book> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("""
+        SELECT b.id AS bookId, c.id AS categoryId FROM Book b
+        JOIN b.categories c
+        WHERE b.id IN :bookIds""")
+    List<BookCategoryIdView> findCategoryIdsByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.categories ORDER BY b.id")
+    Stream<Book> streamAllWithCategories();
+
+    @Modifying
+    @Query(value = """
+        UPDATE books b
+        JOIN books_categories bc ON bc.book_id = b.id
+        SET b.version = b.version + 1
+        WHERE bc.category_id = :categoryId""", nativeQuery = true)
+    int incrementVersionsByCategoryId(@Param("categoryId") Long categoryId);
 }
@@ -1,5 +1,7 @@
 package org.example.springintro.repository.book;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
 import lombok.RequiredArgsConstructor;
 import org.example.springintro.dto.book.BookSearchParameters;
 import org.example.springintro.model.Book;
@@ -24,6 +26,24 @@ public class BookSpecificationBuilder implements SpecificationBuilder<Book> {
             spec = spec.and(bookSpecificationProviderManager.getSpecificationProvider("author")
                     .getSpecification(searchParameters.author()));
         }
+        if (searchParameters.hasCategories()) {
+            String key = searchParameters.matchAllCategories() ? "allCategories" : "categories";
+            spec = spec.and(bookSpecificationProviderManager.getSpecificationProvider(key)
+                    .getSpecification(Arrays.stream(searchParameters.categories())
+                            .map(String::valueOf)
+                            .toArray(String[]::new)));
+        }
+        if (searchParameters.hasPriceRange()) {
+            spec = spec.and(bookSpecificationProviderManager.getSpecificationProvider("price")
+                    .getSpecification(new String[] {
+                            toParam(searchParameters.minPrice()),
+                            toParam(searchParameters.maxPrice())
+                    }));
+        }
         return spec;
     }
+
+    private String toParam(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
 }
@@ -0,0 +1,39 @@
+package org.example.springintro.repository.book.spec;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.Arrays;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.example.springintro.repository.SpecificationProvider;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AllCategorySpecificationProvider implements SpecificationProvider<Book> {
+    private static final String KEY = "allCategories";
+
+    @Override
+    public String getKey() {
+        return KEY;
+    }
+
+    @Override
+    public Specification<Book> getSpecification(String[] params) {
+        Long[] categoryIds = Arrays.stream(params).map(Long::valueOf).distinct()
+                .toArray(Long[]::new);
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Book> book = subquery.from(Book.class);
+            Join<Book, Category> category = book.join("categories");
+            subquery.select(book.get("id"))
+                    .where(category.get("id").in((Object[]) categoryIds));
+            subquery.groupBy(book.get("id"))
+                    .having(criteriaBuilder.equal(
+                            criteriaBuilder.countDistinct(category.get("id")),
+                            (long) categoryIds.length));
+            return root.get("id").in(subquery);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.springintro.repository.book.spec;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.springintro.model.Book;
+import org.example.springintro.repository.SpecificationProvider;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expects {@code [minPrice, maxPrice]}; a null or blank bound is left open.
+ */
+@Component
+public class PriceSpecificationProvider implements SpecificationProvider<Book> {
+    private static final String PRICE = "price";
+
+    @Override
+    public String getKey() {
+        return PRICE;
+    }
+
+    @Override
+    public Specification<Book> getSpecification(String[] params) {
+        BigDecimal min = toBound(params, 0);
+        BigDecimal max = toBound(params, 1);
+        return (root, query, criteriaBuilder) -> {
+            Path<BigDecimal> price = root.get(PRICE);
+            List<Predicate> predicates = new ArrayList<>(2);
+            if (min != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(price, min));
+            }
+            if (max != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(price, max));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private BigDecimal toBound(String[] params, int position) {
+        if (params.length <= position || params[position] == null
+                || params[position].isBlank()) {
+            return null;
+        }
+        return new BigDecimal(params[position].trim());
+    }
+}
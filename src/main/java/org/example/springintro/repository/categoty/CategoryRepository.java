@@ -1,7 +1,24 @@
 package org.example.springintro.repository.categoty;
 
+import java.util.List;
+import java.util.Optional;
+import org.example.springintro.dto.category.CategoryDto;
 import org.example.springintro.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    @Query("""
+        SELECT new org.example.springintro.dto.category.CategoryDto(c.id, c.name, c.description)
+        FROM Category c""")
+    List<CategoryDto> findAllDtos();
+
+    @Query("SELECT c.version FROM Category c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(value = """
+        SELECT CONCAT(COUNT(*), '.', COALESCE(MAX(id), 0), '.', COALESCE(SUM(version), 0))
+        FROM categories""", nativeQuery = true)
+    String findListVersion();
 }
@@ -3,7 +3,23 @@ package org.example.springintro.repository.shoppingcart;
 import java.util.Optional;
 import org.example.springintro.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByIdAndShoppingCartId(Long id, Long shoppingCartId);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO cart_items (shopping_cart_id, book_id, quantity)
+        VALUES (:shoppingCartId, :bookId, :quantity)
+        ON DUPLICATE KEY UPDATE quantity = quantity + :quantity""", nativeQuery = true)
+    int addQuantity(
+            @Param("shoppingCartId") Long shoppingCartId,
+            @Param("bookId") Long bookId,
+            @Param("quantity") int quantity
+    );
 }
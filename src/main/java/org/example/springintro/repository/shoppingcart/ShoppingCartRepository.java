@@ -1,10 +1,16 @@
 package org.example.springintro.repository.shoppingcart;
 
+import java.util.Optional;
 import org.example.springintro.model.ShoppingCart;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
     @EntityGraph(attributePaths = {"cartItems", "cartItems.book"})
     ShoppingCart findByUserId(Long userId);
+
+    @Query("SELECT c.id FROM ShoppingCart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 }
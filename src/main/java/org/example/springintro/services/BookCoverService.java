@@ -0,0 +1,37 @@
+package org.example.springintro.services;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import org.example.springintro.dto.book.BookDto;
+import org.springframework.http.MediaType;
+
+public interface BookCoverService {
+    String COVERS_PATH = "/covers/";
+
+    BookDto storeCover(Long bookId, MediaType contentType, InputStream content);
+
+    CoverFile findCover(String name, String variant);
+
+    enum Variant {
+        SMALL(160),
+        MEDIUM(320),
+        LARGE(640);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int width() {
+            return width;
+        }
+    }
+
+    /**
+     * A stored image. {@code immutable} is false only for a fallback served
+     * because a thumbnail could not be produced in time.
+     */
+    record CoverFile(Path path, String tag, MediaType contentType, long size, boolean immutable) {
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.springintro.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+    void exportBooks(OutputStream output) throws IOException;
+}
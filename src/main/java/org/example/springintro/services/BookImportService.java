@@ -0,0 +1,12 @@
+package org.example.springintro.services;
+
+import java.io.InputStream;
+import org.example.springintro.dto.book.BookImportReportDto;
+import org.springframework.http.MediaType;
+
+public interface BookImportService {
+    MediaType CSV = MediaType.parseMediaType("text/csv");
+    MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    BookImportReportDto importBooks(InputStream input, MediaType format);
+}
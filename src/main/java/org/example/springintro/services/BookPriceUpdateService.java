@@ -0,0 +1,9 @@
+package org.example.springintro.services;
+
+import java.io.InputStream;
+import org.example.springintro.dto.book.BookPriceUpdateReportDto;
+import org.springframework.http.MediaType;
+
+public interface BookPriceUpdateService {
+    BookPriceUpdateReportDto updatePrices(InputStream input, MediaType format);
+}
@@ -1,9 +1,16 @@
 package org.example.springintro.services;
 
 import java.util.List;
+import org.example.springintro.dto.book.BestsellerDto;
+import org.example.springintro.dto.book.BookBatchDto;
+import org.example.springintro.dto.book.BookCursorPageDto;
 import org.example.springintro.dto.book.BookDto;
 import org.example.springintro.dto.book.BookDtoWithoutCategoryIds;
+import org.example.springintro.dto.book.BookFuzzySearchResultDto;
 import org.example.springintro.dto.book.BookSearchParameters;
+import org.example.springintro.dto.book.BookSearchResultDto;
+import org.example.springintro.dto.book.BookSliceDto;
+import org.example.springintro.dto.book.BookSuggestionDto;
 import org.example.springintro.dto.book.CreateBookRequestDto;
 import org.springframework.data.domain.Pageable;
 
@@ -11,14 +18,40 @@ public interface BookService {
     BookDto save(CreateBookRequestDto requestDto);
 
     List<BookDto> findAll(Pageable pageable);
+
+    BookCursorPageDto findAll(String after, Pageable pageable);
+
+    BookSliceDto findSlice(Pageable pageable);
   
     BookDto findById(Long id);
 
+    BookBatchDto findAllByIds(List<Long> ids);
+
     BookDto updateById(Long id, CreateBookRequestDto requestDto);
 
     void deleteById(Long id);
 
     List<BookDto> search(BookSearchParameters params, Pageable pageable);
 
+    BookCursorPageDto search(BookSearchParameters params, String after, Pageable pageable);
+
+    BookSearchResultDto search(
+            BookSearchParameters params,
+            List<String> facets,
+            Pageable pageable
+    );
+
+    BookFuzzySearchResultDto searchFuzzy(String query, Pageable pageable);
+
+    BookSliceDto searchSlice(BookSearchParameters params, Pageable pageable);
+
     List<BookDtoWithoutCategoryIds> findBooksByCategoryId(Long id);
+
+    List<BookSuggestionDto> suggest(String prefix, int limit);
+
+    List<BestsellerDto> findBestsellers(Long categoryId, boolean recent, int limit);
+
+    List<BookDto> findAlsoBought(Long id, int limit);
+
+    List<BookDto> findSimilar(Long id, int limit);
 }
@@ -9,6 +9,10 @@ public interface CategoryService {
 
     CategoryDto getById(Long id);
 
+    long getVersionById(Long id);
+
+    String getListVersion();
+
     CategoryDto save(CreateCategoryRequestDto categoryDto);
 
     CategoryDto updateById(Long id, CreateCategoryRequestDto categoryDto);
@@ -19,4 +19,11 @@ public interface ShoppingCartService {
     );
 
     ShoppingCartDto addBookToCart(AddToCartRequestDto itemDto, User user);
+
+    /**
+     * Makes sure the user's cart is fully written to the database before the
+     * caller reads or changes it through the repositories.
+     */
+    default void flushCart(Long userId) {
+    }
 }
@@ -0,0 +1,241 @@
+package org.example.springintro.services.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.exception.EntityNotFoundException;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.mapper.BookMapper;
+import org.example.springintro.model.Book;
+import org.example.springintro.repository.book.BookRepository;
+import org.example.springintro.services.BookCoverService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Stores covers under the SHA-256 of their content, fanned out by the first two
+ * byte pairs of the hash. Identical uploads share one file, and a stored file
+ * never changes, so it can be cached by clients indefinitely. Thumbnails are
+ * generated in the background whenever a book is saved with a stored cover.
+ */
+@Service
+public class BookCoverServiceImpl implements BookCoverService {
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            MediaType.IMAGE_JPEG_VALUE, "jpg",
+            MediaType.IMAGE_PNG_VALUE, "png",
+            MediaType.IMAGE_GIF_VALUE, "gif",
+            "image/webp", "webp");
+    private static final Map<String, MediaType> CONTENT_TYPES = Map.of(
+            "jpg", MediaType.IMAGE_JPEG,
+            "png", MediaType.IMAGE_PNG,
+            "gif", MediaType.IMAGE_GIF,
+            "webp", MediaType.parseMediaType("image/webp"));
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})\\.([a-z]+)");
+    private static final int BUFFER_SIZE = 8192;
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CoverThumbnailGenerator thumbnailGenerator;
+    private final Path directory;
+    private final long maxSize;
+    private final Duration thumbnailTimeout;
+
+    public BookCoverServiceImpl(
+            BookRepository bookRepository,
+            BookMapper bookMapper,
+            ApplicationEventPublisher eventPublisher,
+            CoverThumbnailGenerator thumbnailGenerator,
+            @Value("${books.covers.directory:covers}") Path directory,
+            @Value("${books.covers.max-size:5MB}") DataSize maxSize,
+            @Value("${books.covers.thumbnail-timeout:PT2S}") Duration thumbnailTimeout
+    ) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.eventPublisher = eventPublisher;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxSize = maxSize.toBytes();
+        this.thumbnailTimeout = thumbnailTimeout;
+    }
+
+    @Override
+    public BookDto storeCover(Long bookId, MediaType contentType, InputStream content) {
+        String extension = contentType == null
+                ? null
+                : EXTENSIONS.get(contentType.getType() + "/" + contentType.getSubtype());
+        if (extension == null) {
+            throw new InvalidRequestException("Unsupported cover type: " + contentType);
+        }
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Book not found by id: " + bookId)
+                );
+        book.setCoverImage(COVERS_PATH + write(content, extension));
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookSavedEvent(savedBook));
+        return bookMapper.toDto(savedBook);
+    }
+
+    @Override
+    public CoverFile findCover(String name, String variant) {
+        CoverFile original = findOriginal(name);
+        if (variant == null) {
+            return original;
+        }
+        Variant parsedVariant = parseVariant(variant);
+        Path thumbnail = CoverThumbnailGenerator.thumbnailPath(original.path(), parsedVariant);
+        boolean settled = true;
+        if (!Files.exists(thumbnail)) {
+            settled = awaitThumbnails(original.path());
+        }
+        try {
+            if (Files.exists(thumbnail)) {
+                return new CoverFile(thumbnail,
+                        original.tag() + "-" + parsedVariant.name().toLowerCase(Locale.ROOT),
+                        original.contentType(), Files.size(thumbnail), true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read cover " + name, e);
+        }
+        return new CoverFile(original.path(), original.tag(), original.contentType(),
+                original.size(), settled);
+    }
+
+    @EventListener
+    public void onBookSaved(BookSavedEvent event) {
+        String coverImage = event.book().getCoverImage();
+        if (coverImage == null || !coverImage.startsWith(COVERS_PATH)) {
+            return;
+        }
+        Matcher matcher = NAME.matcher(coverImage.substring(COVERS_PATH.length()));
+        if (matcher.matches()) {
+            Path path = resolve(matcher.group(1), matcher.group());
+            if (Files.isRegularFile(path)) {
+                thumbnailGenerator.generate(path);
+            }
+        }
+    }
+
+    private CoverFile findOriginal(String name) {
+        Matcher matcher = NAME.matcher(name);
+        MediaType contentType = matcher.matches() ? CONTENT_TYPES.get(matcher.group(2)) : null;
+        Path path = contentType == null ? null : resolve(matcher.group(1), name);
+        try {
+            if (path == null || !Files.isRegularFile(path)) {
+                throw new EntityNotFoundException("Cover not found: " + name);
+            }
+            return new CoverFile(path, matcher.group(1), contentType, Files.size(path), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read cover " + name, e);
+        }
+    }
+
+    private Variant parseVariant(String variant) {
+        try {
+            return Variant.valueOf(variant.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown cover variant: " + variant);
+        }
+    }
+
+    /**
+     * Waits for the thumbnails of the cover; returns false when they could not
+     * be produced in time, so the caller must not cache the fallback.
+     */
+    private boolean awaitThumbnails(Path original) {
+        try {
+            thumbnailGenerator.generate(original)
+                    .get(thumbnailTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String write(InputStream content, String extension) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(content, digest);
+                    OutputStream output = Files.newOutputStream(temp)) {
+                copy(input, output);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String name = hash + "." + extension;
+            Path target = resolve(hash, name);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return name;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't store cover", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private void copy(InputStream input, OutputStream output) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            size += read;
+            if (size > maxSize) {
+                throw new InvalidRequestException(
+                        "Cover image must not exceed " + maxSize + " bytes");
+            }
+            output.write(buffer, 0, read);
+        }
+        if (size == 0) {
+            throw new InvalidRequestException("Cover image is empty");
+        }
+    }
+
+    private Path resolve(String hash, String name) {
+        return directory.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(name);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+}
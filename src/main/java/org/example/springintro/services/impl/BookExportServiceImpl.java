@@ -0,0 +1,59 @@
+package org.example.springintro.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.mapper.BookMapper;
+import org.example.springintro.model.Book;
+import org.example.springintro.repository.book.BookRepository;
+import org.example.springintro.services.BookExportService;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class BookExportServiceImpl implements BookExportService {
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void exportBooks(OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+        JsonGenerator generator = writer.createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (Stream<Book> books = bookRepository.streamAllWithCategories()) {
+            Iterator<Book> iterator = books.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                BookDto bookDto = bookMapper.toDto(book);
+                if (bookDto.getCategoryIds() == null) {
+                    bookDto.setCategoryIds(List.of());
+                }
+                writer.writeValue(generator, bookDto);
+                generator.writeRaw('\n');
+                entityManager.detach(book);
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.flush();
+    }
+}
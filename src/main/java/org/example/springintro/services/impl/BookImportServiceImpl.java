@@ -0,0 +1,311 @@
+package org.example.springintro.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.example.springintro.dto.book.BookImportErrorDto;
+import org.example.springintro.dto.book.BookImportReportDto;
+import org.example.springintro.dto.book.CreateBookRequestDto;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.example.springintro.services.BookImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String INSERT_BOOK = """
+            INSERT INTO books
+                (title, author, isbn, price, description, cover_image, is_deleted)
+            VALUES (?, ?, ?, ?, ?, ?, FALSE)""";
+    private static final String INSERT_BOOK_CATEGORY =
+            "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BookImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${books.import.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public BookImportReportDto importBooks(InputStream input, MediaType format) {
+        boolean csv = CSV.isCompatibleWith(format);
+        if (!csv && !NDJSON.isCompatibleWith(format)) {
+            throw new InvalidRequestException("Unsupported import format: " + format);
+        }
+        BookImportReportDto report = new BookImportReportDto();
+        Set<Long> categoryIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM categories WHERE is_deleted = FALSE", Long.class));
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                report.setProcessed(report.getProcessed() + 1);
+                ImportRow row = parseRow(lineNumber, line, header, categoryIds, report);
+                if (row != null) {
+                    batch.add(row);
+                }
+                if (batch.size() == batchSize) {
+                    flush(batch, report);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read import stream", e);
+        }
+        flush(batch, report);
+        return report;
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> columns = CsvLineParser.parse(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i), i);
+        }
+        return header;
+    }
+
+    private ImportRow parseRow(
+            long lineNumber,
+            String line,
+            Map<String, Integer> header,
+            Set<Long> categoryIds,
+            BookImportReportDto report
+    ) {
+        CreateBookRequestDto requestDto;
+        try {
+            requestDto = header == null
+                    ? objectMapper.readValue(line, CreateBookRequestDto.class)
+                    : fromCsv(CsvLineParser.parse(line), header);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            fail(report, lineNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+        Set<ConstraintViolation<CreateBookRequestDto>> violations =
+                validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            fail(report, lineNumber, requestDto.getIsbn(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " "
+                            + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        List<Long> unknown = requestDto.getCategoryIds().stream()
+                .filter(id -> !categoryIds.contains(id))
+                .toList();
+        if (!unknown.isEmpty()) {
+            fail(report, lineNumber, requestDto.getIsbn(), "Unknown category ids: " + unknown);
+            return null;
+        }
+        return new ImportRow(lineNumber, requestDto);
+    }
+
+    private CreateBookRequestDto fromCsv(List<String> fields, Map<String, Integer> header) {
+        CreateBookRequestDto requestDto = new CreateBookRequestDto();
+        requestDto.setTitle(field(fields, header, "title"));
+        requestDto.setAuthor(field(fields, header, "author"));
+        requestDto.setIsbn(field(fields, header, "isbn"));
+        String price = field(fields, header, "price");
+        requestDto.setPrice(price == null || price.isEmpty() ? null : new BigDecimal(price));
+        requestDto.setDescription(field(fields, header, "description"));
+        requestDto.setCoverImage(field(fields, header, "coverImage"));
+        String categories = field(fields, header, "categoryIds");
+        requestDto.setCategoryIds(categories == null || categories.isEmpty()
+                ? List.of()
+                : Arrays.stream(categories.split(";"))
+                        .map(String::trim)
+                        .map(Long::valueOf)
+                        .toList());
+        return requestDto;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private void flush(List<ImportRow> batch, BookImportReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Book> inserted = insertBatch(batch);
+        Set<String> insertedIsbns = new HashSet<>();
+        for (Book book : inserted) {
+            insertedIsbns.add(book.getIsbn());
+            eventPublisher.publishEvent(new BookSavedEvent(book));
+        }
+        report.setImported(report.getImported() + inserted.size());
+        for (ImportRow row : batch) {
+            if (!insertedIsbns.remove(row.requestDto().getIsbn())) {
+                report.setSkipped(report.getSkipped() + 1);
+                addError(report, new BookImportErrorDto(
+                        row.line(), row.requestDto().getIsbn(), "Duplicate ISBN"));
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Inserts the batch in one transaction. The unique key on isbn detects
+     * duplicates: when one is hit, the batch is rolled back and re-run one row
+     * per transaction, so only the duplicate rows are skipped.
+     */
+    private List<Book> insertBatch(List<ImportRow> batch) {
+        Map<String, CreateBookRequestDto> booksByIsbn =
+                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        batch.forEach(row -> booksByIsbn.putIfAbsent(row.requestDto().getIsbn(),
+                row.requestDto()));
+        List<CreateBookRequestDto> requestDtos = List.copyOf(booksByIsbn.values());
+        try {
+            return transactionTemplate.execute(status -> insert(requestDtos));
+        } catch (DuplicateKeyException e) {
+            List<Book> inserted = new ArrayList<>();
+            for (CreateBookRequestDto requestDto : requestDtos) {
+                try {
+                    inserted.addAll(transactionTemplate.execute(
+                            status -> insert(List.of(requestDto))));
+                } catch (DuplicateKeyException duplicate) {
+                    // reported as a duplicate by the caller
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private List<Book> insert(List<CreateBookRequestDto> requestDtos) {
+        List<Map<String, Object>> keys = insertBooks(requestDtos);
+        List<Book> inserted = new ArrayList<>(requestDtos.size());
+        for (int i = 0; i < requestDtos.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            inserted.add(toBook(id.longValue(), requestDtos.get(i)));
+        }
+        List<long[]> bookCategories = new ArrayList<>();
+        inserted.forEach(book -> book.getCategories().forEach(
+                category -> bookCategories.add(new long[]{book.getId(), category.getId()})));
+        jdbcTemplate.batchUpdate(INSERT_BOOK_CATEGORY, bookCategories, batchSize,
+                (statement, pair) -> {
+                    statement.setLong(1, pair[0]);
+                    statement.setLong(2, pair[1]);
+                });
+        return inserted;
+    }
+
+    private List<Map<String, Object>> insertBooks(List<CreateBookRequestDto> requestDtos) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_BOOK,
+                        Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i)
+                            throws SQLException {
+                        CreateBookRequestDto requestDto = requestDtos.get(i);
+                        statement.setString(1, requestDto.getTitle());
+                        statement.setString(2, requestDto.getAuthor());
+                        statement.setString(3, requestDto.getIsbn());
+                        statement.setBigDecimal(4, requestDto.getPrice());
+                        statement.setString(5, requestDto.getDescription());
+                        statement.setString(6, requestDto.getCoverImage());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return requestDtos.size();
+                    }
+                },
+                keyHolder
+        );
+        return keyHolder.getKeyList();
+    }
+
+    private Book toBook(long id, CreateBookRequestDto requestDto) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(requestDto.getTitle());
+        book.setAuthor(requestDto.getAuthor());
+        book.setIsbn(requestDto.getIsbn());
+        book.setPrice(requestDto.getPrice());
+        book.setDescription(requestDto.getDescription());
+        book.setCoverImage(requestDto.getCoverImage());
+        for (Long categoryId : new HashSet<>(requestDto.getCategoryIds())) {
+            Category category = new Category();
+            category.setId(categoryId);
+            book.getCategories().add(category);
+        }
+        return book;
+    }
+
+    private void fail(BookImportReportDto report, long line, String isbn, String message) {
+        report.setFailed(report.getFailed() + 1);
+        addError(report, new BookImportErrorDto(line, isbn, message));
+    }
+
+    private void addError(BookImportReportDto report, BookImportErrorDto error) {
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(error);
+        }
+    }
+
+    private record ImportRow(long line, CreateBookRequestDto requestDto) {
+    }
+}
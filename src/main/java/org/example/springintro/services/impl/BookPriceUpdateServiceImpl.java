@@ -0,0 +1,275 @@
+package org.example.springintro.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.example.springintro.dto.book.BookImportErrorDto;
+import org.example.springintro.dto.book.BookPriceUpdateDto;
+import org.example.springintro.dto.book.BookPriceUpdateReportDto;
+import org.example.springintro.event.BookPricesChangedEvent;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.services.BookImportService;
+import org.example.springintro.services.BookPriceUpdateService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies streamed (id or isbn, price) pairs without loading entities: each
+ * batch resolves its keys with one query, updates every found book with one
+ * joined {@code UPDATE} and publishes one price change event.
+ */
+@Service
+public class BookPriceUpdateServiceImpl implements BookPriceUpdateService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String SELECT_BY_ID = """
+            SELECT id, isbn FROM books
+            WHERE is_deleted = FALSE AND id IN (:ids)""";
+    private static final String SELECT_BY_ISBN = """
+            SELECT id, isbn FROM books
+            WHERE is_deleted = FALSE AND isbn IN (:isbns)""";
+    private static final String SELECT_BY_ID_OR_ISBN = """
+            SELECT id, isbn FROM books
+            WHERE is_deleted = FALSE AND (id IN (:ids) OR isbn IN (:isbns))""";
+    private static final String UPDATE_PRICES = """
+            UPDATE books b JOIN (%s) p ON b.id = p.id
+            SET b.price = p.price, b.version = b.version + 1""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BookPriceUpdateServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${books.prices.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public BookPriceUpdateReportDto updatePrices(InputStream input, MediaType format) {
+        boolean csv = BookImportService.CSV.isCompatibleWith(format);
+        if (!csv && !BookImportService.NDJSON.isCompatibleWith(format)) {
+            throw new InvalidRequestException("Unsupported price update format: " + format);
+        }
+        BookPriceUpdateReportDto report = new BookPriceUpdateReportDto();
+        List<PriceRow> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                report.setProcessed(report.getProcessed() + 1);
+                PriceRow row = parseRow(lineNumber, line, header, report);
+                if (row != null) {
+                    batch.add(row);
+                }
+                if (batch.size() == batchSize) {
+                    flush(batch, report);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read price update stream", e);
+        }
+        flush(batch, report);
+        return report;
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> columns = CsvLineParser.parse(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i), i);
+        }
+        if (!header.containsKey("price")
+                || !header.containsKey("id") && !header.containsKey("isbn")) {
+            throw new InvalidRequestException(
+                    "CSV header must contain a price column and an id or isbn column");
+        }
+        return header;
+    }
+
+    private PriceRow parseRow(
+            long lineNumber,
+            String line,
+            Map<String, Integer> header,
+            BookPriceUpdateReportDto report
+    ) {
+        BookPriceUpdateDto updateDto;
+        try {
+            updateDto = header == null
+                    ? objectMapper.readValue(line, BookPriceUpdateDto.class)
+                    : fromCsv(CsvLineParser.parse(line), header);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            fail(report, lineNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+        if (updateDto.getId() == null
+                && (updateDto.getIsbn() == null || updateDto.getIsbn().isBlank())) {
+            fail(report, lineNumber, null, "id or isbn is required");
+            return null;
+        }
+        Set<ConstraintViolation<BookPriceUpdateDto>> violations = validator.validate(updateDto);
+        if (!violations.isEmpty()) {
+            fail(report, lineNumber, updateDto.getIsbn(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " "
+                            + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        return new PriceRow(lineNumber, updateDto);
+    }
+
+    private BookPriceUpdateDto fromCsv(List<String> fields, Map<String, Integer> header) {
+        BookPriceUpdateDto updateDto = new BookPriceUpdateDto();
+        String id = field(fields, header, "id");
+        updateDto.setId(id == null || id.isEmpty() ? null : Long.valueOf(id.trim()));
+        String isbn = field(fields, header, "isbn");
+        updateDto.setIsbn(isbn == null || isbn.isEmpty() ? null : isbn);
+        String price = field(fields, header, "price");
+        updateDto.setPrice(price == null || price.isEmpty() ? null : new BigDecimal(price.trim()));
+        return updateDto;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private void flush(List<PriceRow> batch, BookPriceUpdateReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        List<PriceRow> missing = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> update(batch, prices, missing));
+        report.setUpdated(report.getUpdated() + batch.size() - missing.size());
+        for (PriceRow row : missing) {
+            report.setNotFound(report.getNotFound() + 1);
+            addError(report, new BookImportErrorDto(row.line(), row.updateDto().getIsbn(),
+                    row.updateDto().getId() == null
+                            ? "Book not found"
+                            : "Book not found: id " + row.updateDto().getId()));
+        }
+        if (!prices.isEmpty()) {
+            eventPublisher.publishEvent(new BookPricesChangedEvent(prices));
+        }
+        batch.clear();
+    }
+
+    private void update(
+            List<PriceRow> batch,
+            Map<Long, BigDecimal> prices,
+            List<PriceRow> missing
+    ) {
+        Set<Long> ids = new HashSet<>();
+        Map<String, Long> idsByIsbn = new HashMap<>();
+        resolve(batch, ids, idsByIsbn);
+        for (PriceRow row : batch) {
+            Long id = row.updateDto().getId() != null
+                    ? ids.contains(row.updateDto().getId()) ? row.updateDto().getId() : null
+                    : idsByIsbn.get(row.updateDto().getIsbn());
+            if (id == null) {
+                missing.add(row);
+            } else {
+                prices.put(id, row.updateDto().getPrice());
+            }
+        }
+        if (prices.isEmpty()) {
+            return;
+        }
+        StringBuilder values = new StringBuilder("SELECT ? AS id, ? AS price");
+        values.append(" UNION ALL SELECT ?, ?".repeat(prices.size() - 1));
+        List<Object> arguments = new ArrayList<>(prices.size() * 2);
+        prices.forEach((id, price) -> {
+            arguments.add(id);
+            arguments.add(price);
+        });
+        jdbcTemplate.update(UPDATE_PRICES.formatted(values), arguments.toArray());
+    }
+
+    private void resolve(List<PriceRow> batch, Set<Long> ids, Map<String, Long> idsByIsbn) {
+        Set<Long> requestedIds = new HashSet<>();
+        Set<String> requestedIsbns = new HashSet<>();
+        for (PriceRow row : batch) {
+            if (row.updateDto().getId() != null) {
+                requestedIds.add(row.updateDto().getId());
+            } else {
+                requestedIsbns.add(row.updateDto().getIsbn());
+            }
+        }
+        String sql = requestedIsbns.isEmpty()
+                ? SELECT_BY_ID
+                : requestedIds.isEmpty() ? SELECT_BY_ISBN : SELECT_BY_ID_OR_ISBN;
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", requestedIds)
+                .addValue("isbns", requestedIsbns);
+        namedParameterJdbcTemplate.query(sql, parameters, resultSet -> {
+            long id = resultSet.getLong("id");
+            if (requestedIds.contains(id)) {
+                ids.add(id);
+            }
+            idsByIsbn.put(resultSet.getString("isbn"), id);
+        });
+    }
+
+    private void fail(BookPriceUpdateReportDto report, long line, String isbn, String message) {
+        report.setFailed(report.getFailed() + 1);
+        addError(report, new BookImportErrorDto(line, isbn, message));
+    }
+
+    private void addError(BookPriceUpdateReportDto report, BookImportErrorDto error) {
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(error);
+        }
+    }
+
+    private record PriceRow(long line, BookPriceUpdateDto updateDto) {
+    }
+}
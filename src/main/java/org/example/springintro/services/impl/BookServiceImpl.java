@@ -1,50 +1,138 @@
 package org.example.springintro.services.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.example.springintro.cache.BookCache;
+import org.example.springintro.cache.CatalogStatistics;
+import org.example.springintro.cache.SearchResultCache;
+import org.example.springintro.dto.book.BestsellerDto;
+import org.example.springintro.dto.book.BookBatchDto;
+import org.example.springintro.dto.book.BookCursorPageDto;
 import org.example.springintro.dto.book.BookDto;
 import org.example.springintro.dto.book.BookDtoWithoutCategoryIds;
+import org.example.springintro.dto.book.BookFacetsDto;
+import org.example.springintro.dto.book.BookFuzzySearchResultDto;
 import org.example.springintro.dto.book.BookSearchParameters;
+import org.example.springintro.dto.book.BookSearchResultDto;
+import org.example.springintro.dto.book.BookSliceDto;
+import org.example.springintro.dto.book.BookSuggestionDto;
 import org.example.springintro.dto.book.CreateBookRequestDto;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.BookSavedEvent;
 import org.example.springintro.exception.EntityNotFoundException;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.index.BookFacetIndex;
+import org.example.springintro.index.BookFullTextIndex;
+import org.example.springintro.index.BookFuzzyIndex;
+import org.example.springintro.index.BookPriceIndex;
+import org.example.springintro.index.BookSimilarityIndex;
+import org.example.springintro.index.BookSuggestionIndex;
+import org.example.springintro.index.CategoryBitmapIndex;
 import org.example.springintro.mapper.BookMapper;
 import org.example.springintro.model.Book;
 import org.example.springintro.model.Category;
+import org.example.springintro.ranking.BestsellerRanking;
+import org.example.springintro.ranking.CoPurchaseIndex;
+import org.example.springintro.repository.OffsetPageRequest;
+import org.example.springintro.repository.book.BookCategoryIdView;
+import org.example.springintro.repository.book.BookCursor;
 import org.example.springintro.repository.book.BookRepository;
 import org.example.springintro.repository.book.BookSpecificationBuilder;
 import org.example.springintro.repository.categoty.CategoryRepository;
 import org.example.springintro.services.BookService;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class BookServiceImpl implements BookService {
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final int MAX_BESTSELLERS = 100;
+    private static final int MAX_RECOMMENDATIONS = 50;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
     private final CategoryRepository categoryRepository;
+    private final BookFullTextIndex bookFullTextIndex;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookCache bookCache;
+    private final CategoryBitmapIndex categoryBitmapIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookPriceIndex bookPriceIndex;
+    private final SearchResultCache searchResultCache;
+    private final CatalogStatistics catalogStatistics;
+    private final BookFuzzyIndex bookFuzzyIndex;
+    private final BestsellerRanking bestsellerRanking;
+    private final CoPurchaseIndex coPurchaseIndex;
+    private final BookSimilarityIndex bookSimilarityIndex;
 
     @Override
     public BookDto save(CreateBookRequestDto requestDto) {
         Book book = bookMapper.toModel(requestDto);
         addCategories(book, requestDto.getCategoryIds());
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookSavedEvent(savedBook));
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
     public List<BookDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable).stream()
-                .map(bookMapper::toDto)
-                .toList();
+        return withCategoryIds(bookRepository.findDtos(Specification.where(null), pageable));
+    }
+
+    @Override
+    public BookCursorPageDto findAll(String after, Pageable pageable) {
+        return scroll(Specification.where(null), after, pageable);
+    }
+
+    @Override
+    public BookSliceDto findSlice(Pageable pageable) {
+        return toSlice(findAll(probe(pageable)), pageable,
+                catalogStatistics.approximateBookCount());
     }
 
     @Override
     public BookDto findById(Long id) {
-        Book book = findByIdOrThrow(id);
-        return bookMapper.toDto(book);
+        return bookCache.get(id, key -> bookMapper.toDto(findByIdOrThrow(key)));
+    }
+
+    @Override
+    public BookBatchDto findAllByIds(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        uniqueIds.remove(null);
+        if (uniqueIds.size() > MAX_BATCH_IDS) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_IDS
+                    + " books can be requested at once");
+        }
+        Map<Long, BookDto> books = findCachedDtos(uniqueIds);
+        BookBatchDto result = new BookBatchDto();
+        result.setContent(uniqueIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList());
+        result.setMissingIds(uniqueIds.stream()
+                .filter(id -> !books.containsKey(id))
+                .toList());
+        return result;
     }
 
     @Override
@@ -52,31 +140,358 @@ public class BookServiceImpl implements BookService {
         Book book = findByIdOrThrow(id);
         bookMapper.updateBookFromDto(requestDto, book);
         addCategories(book, requestDto.getCategoryIds());
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookSavedEvent(savedBook));
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
     public void deleteById(Long id) {
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookDeletedEvent(id));
     }
 
     @Override
     public List<BookDto> search(BookSearchParameters params, Pageable pageable) {
-        Specification<Book> bookSpecification = bookSpecificationBuilder.build(params);
-        return bookRepository.findAll(bookSpecification, pageable)
-                .stream()
-                .map(bookMapper::toDto)
-                .toList();
+        validatePriceRange(params);
+        SearchResultCache.Key key = searchResultCache.key(params, pageable);
+        List<Long> cachedIds = searchResultCache.get(key);
+        if (cachedIds != null) {
+            return findCachedDtosInOrder(cachedIds);
+        }
+        List<BookDto> books = searchUncached(params, pageable);
+        searchResultCache.put(key, books.stream().map(BookDto::getId).toList());
+        return books;
+    }
+
+    @Override
+    public BookCursorPageDto search(BookSearchParameters params, String after, Pageable pageable) {
+        validatePriceRange(params);
+        if (hasQuery(params)) {
+            throw new InvalidRequestException(
+                    "Full-text queries are not supported when scrolling; use /books/search");
+        }
+        return scroll(bookSpecificationBuilder.build(params), after, pageable);
+    }
+
+    @Override
+    public BookSearchResultDto search(
+            BookSearchParameters params,
+            List<String> facets,
+            Pageable pageable
+    ) {
+        validatePriceRange(params);
+        RoaringBitmap bookIds = matchIndexed(params);
+        if (hasQuery(params)) {
+            RoaringBitmap textBookIds = new RoaringBitmap();
+            for (long bookId : bookFullTextIndex.match(params.query())) {
+                textBookIds.add((int) bookId);
+            }
+            bookIds = bookIds == null ? textBookIds : RoaringBitmap.and(bookIds, textBookIds);
+        }
+        BookFacetIndex.Counts counts = bookFacetIndex.count(bookIds,
+                toSet(params.title()),
+                toSet(params.author()),
+                parseFacets(facets));
+        BookSearchResultDto result = new BookSearchResultDto();
+        result.setContent(search(params, pageable));
+        result.setTotal(counts.total());
+        result.setFacets(counts.facets());
+        return result;
+    }
+
+    @Override
+    public BookFuzzySearchResultDto searchFuzzy(String query, Pageable pageable) {
+        BookFuzzyIndex.Result matches = bookFuzzyIndex.search(
+                query, pageable.getOffset(), pageable.getPageSize());
+        BookFuzzySearchResultDto result = new BookFuzzySearchResultDto();
+        result.setContent(findDtosByIds(matches.bookIds()));
+        result.setTotal(matches.total());
+        result.setDidYouMean(matches.suggestion());
+        return result;
+    }
+
+    @Override
+    public BookSliceDto searchSlice(BookSearchParameters params, Pageable pageable) {
+        Long approximateTotal = null;
+        if (isEmpty(params.title()) && isEmpty(params.author())
+                && !hasQuery(params)) {
+            RoaringBitmap bookIds = matchIndexed(params);
+            approximateTotal = bookIds == null
+                    ? catalogStatistics.approximateBookCount()
+                    : Long.valueOf(bookIds.getCardinality());
+        }
+        return toSlice(search(params, probe(pageable)), pageable, approximateTotal);
     }
 
     @Override
     public List<BookDtoWithoutCategoryIds> findBooksByCategoryId(Long id) {
-        List<Book> books = bookRepository.findAllByCategories_Id(id);
-        return books.stream()
-                .map(bookMapper::toDtoWithoutCategories)
+        RoaringBitmap bookIds = categoryBitmapIndex.match(List.of(id), false);
+        List<BookDtoWithoutCategoryIds> books = new ArrayList<>(bookIds.getCardinality());
+        for (int offset = 0; offset < bookIds.getCardinality(); offset += ID_CHUNK_SIZE) {
+            books.addAll(bookRepository.findDtosByIdIn(CategoryBitmapIndex.page(
+                    bookIds, offset, ID_CHUNK_SIZE, true)));
+        }
+        return books;
+    }
+
+    @Override
+    public List<BookSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > BookSuggestionIndex.MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Suggestion limit must be between 1 and "
+                    + BookSuggestionIndex.MAX_SUGGESTIONS);
+        }
+        return bookSuggestionIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public List<BestsellerDto> findBestsellers(Long categoryId, boolean recent, int limit) {
+        if (limit < 1 || limit > MAX_BESTSELLERS) {
+            throw new InvalidRequestException("Bestseller limit must be between 1 and "
+                    + MAX_BESTSELLERS);
+        }
+        RoaringBitmap filter = categoryId == null
+                ? null
+                : categoryBitmapIndex.match(List.of(categoryId), true);
+        List<BestsellerRanking.SalesCount> counts = bestsellerRanking.top(filter, recent, limit);
+        Map<Long, BookDto> books = findCachedDtos(counts.stream()
+                .map(BestsellerRanking.SalesCount::bookId)
+                .toList());
+        return counts.stream()
+                .filter(count -> books.containsKey(count.bookId()))
+                .map(count -> new BestsellerDto(books.get(count.bookId()), count.units()))
+                .toList();
+    }
+
+    @Override
+    public List<BookDto> findAlsoBought(Long id, int limit) {
+        validateRecommendationLimit(limit);
+        return findCachedDtosInOrder(coPurchaseIndex.top(id, limit));
+    }
+
+    @Override
+    public List<BookDto> findSimilar(Long id, int limit) {
+        validateRecommendationLimit(limit);
+        return findCachedDtosInOrder(bookSimilarityIndex.similar(id, limit));
+    }
+
+    private void validateRecommendationLimit(int limit) {
+        if (limit < 1 || limit > MAX_RECOMMENDATIONS) {
+            throw new InvalidRequestException("Recommendation limit must be between 1 and "
+                    + MAX_RECOMMENDATIONS);
+        }
+    }
+
+    private List<BookDto> findCachedDtosInOrder(List<Long> ids) {
+        Map<Long, BookDto> books = findCachedDtos(ids);
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    private Map<Long, BookDto> findCachedDtos(Collection<Long> ids) {
+        return bookCache.getAll(ids, missing -> findDtosByIds(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(BookDto::getId, Function.identity())));
+    }
+
+    private List<BookDto> searchUncached(BookSearchParameters params, Pageable pageable) {
+        if (hasQuery(params)) {
+            return searchFullText(params, pageable);
+        }
+        if (isEmpty(params.title()) && isEmpty(params.author())) {
+            if (isSortedByPrice(pageable.getSort())) {
+                return searchByPrice(params, pageable);
+            }
+            if ((params.hasCategories() || params.hasPriceRange())
+                    && isSortedById(pageable.getSort())) {
+                return searchByIndex(params, pageable);
+            }
+        }
+        Specification<Book> bookSpecification = bookSpecificationBuilder.build(params);
+        return withCategoryIds(bookRepository.findDtos(bookSpecification, pageable));
+    }
+
+    private List<BookDto> searchFullText(BookSearchParameters params, Pageable pageable) {
+        List<Long> ids;
+        RoaringBitmap bookIds = matchFiltered(params);
+        if (bookIds != null) {
+            ids = bookFullTextIndex.search(params.query(),
+                    bookId -> bookIds.contains((int) bookId),
+                    pageable.getOffset(), pageable.getPageSize());
+        } else {
+            ids = bookFullTextIndex.search(
+                    params.query(), pageable.getOffset(), pageable.getPageSize());
+        }
+        return findDtosByIds(ids);
+    }
+
+    private List<BookDto> searchByIndex(BookSearchParameters params, Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor(BookCursor.ID);
+        List<Long> ids = CategoryBitmapIndex.page(matchIndexed(params),
+                pageable.getOffset(), pageable.getPageSize(),
+                order == null || order.isAscending());
+        return findDtosByIds(ids);
+    }
+
+    private List<BookDto> searchByPrice(BookSearchParameters params, Pageable pageable) {
+        List<Long> ids = bookPriceIndex.page(params.minPrice(), params.maxPrice(),
+                params.hasCategories() ? matchCategories(params) : null,
+                pageable.getOffset(), pageable.getPageSize(),
+                pageable.getSort().getOrderFor(BookCursor.PRICE).isAscending());
+        return findDtosByIds(ids);
+    }
+
+    /**
+     * Intersects the category and price constraints answered by the in-memory
+     * indexes, or returns null when the parameters have neither.
+     */
+    private RoaringBitmap matchIndexed(BookSearchParameters params) {
+        RoaringBitmap bookIds = params.hasCategories() ? matchCategories(params) : null;
+        if (params.hasPriceRange()) {
+            RoaringBitmap priced = bookPriceIndex.match(params.minPrice(), params.maxPrice());
+            bookIds = bookIds == null ? priced : RoaringBitmap.and(bookIds, priced);
+        }
+        return bookIds;
+    }
+
+    /**
+     * Like {@link #matchIndexed}, but also applies the exact title and author
+     * constraints from the facet index.
+     */
+    private RoaringBitmap matchFiltered(BookSearchParameters params) {
+        RoaringBitmap bookIds = matchIndexed(params);
+        if (isEmpty(params.title()) && isEmpty(params.author())) {
+            return bookIds;
+        }
+        RoaringBitmap named = bookFacetIndex.match(toSet(params.title()), toSet(params.author()));
+        return bookIds == null ? named : RoaringBitmap.and(bookIds, named);
+    }
+
+    private RoaringBitmap matchCategories(BookSearchParameters params) {
+        return categoryBitmapIndex.match(
+                Arrays.asList(params.categories()), params.matchAllCategories());
+    }
+
+    private void validatePriceRange(BookSearchParameters params) {
+        if (params.minPrice() != null && params.maxPrice() != null
+                && params.minPrice().compareTo(params.maxPrice()) > 0) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    private Set<BookFacetsDto.Facet> parseFacets(List<String> facets) {
+        if (facets == null || facets.stream().allMatch(String::isBlank)) {
+            return EnumSet.allOf(BookFacetsDto.Facet.class);
+        }
+        Set<BookFacetsDto.Facet> result = EnumSet.noneOf(BookFacetsDto.Facet.class);
+        for (String facet : facets) {
+            if (facet.isBlank()) {
+                continue;
+            }
+            try {
+                result.add(BookFacetsDto.Facet.valueOf(facet.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Unknown facet: " + facet);
+            }
+        }
+        return result;
+    }
+
+    private boolean isSortedByPrice(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return !orders.isEmpty() && BookCursor.PRICE.equals(orders.get(0).getProperty())
+                && orders.stream().skip(1).allMatch(order ->
+                        BookCursor.ID.equals(order.getProperty())
+                                && order.getDirection() == orders.get(0).getDirection());
+    }
+
+    private boolean isSortedById(Sort sort) {
+        return sort.isUnsorted()
+                || sort.stream().allMatch(order -> BookCursor.ID.equals(order.getProperty()));
+    }
+
+    private boolean hasQuery(BookSearchParameters params) {
+        return params.query() != null && !params.query().isBlank();
+    }
+
+    private boolean isEmpty(String[] values) {
+        return values == null || values.length == 0;
+    }
+
+    private Set<String> toSet(String[] values) {
+        return isEmpty(values) ? null : new HashSet<>(Arrays.asList(values));
+    }
+
+    private Pageable probe(Pageable pageable) {
+        return new OffsetPageRequest(pageable.getOffset(), pageable.getPageSize() + 1,
+                pageable.getSort());
+    }
+
+    private BookSliceDto toSlice(List<BookDto> books, Pageable pageable, Long approximateTotal) {
+        int size = pageable.getPageSize();
+        BookSliceDto slice = new BookSliceDto();
+        slice.setContent(books.size() > size ? books.subList(0, size) : books);
+        slice.setPage(pageable.getPageNumber());
+        slice.setSize(size);
+        slice.setHasNext(books.size() > size);
+        slice.setApproximateTotal(approximateTotal);
+        return slice;
+    }
+
+    private BookCursorPageDto scroll(
+            Specification<Book> specification,
+            String after,
+            Pageable pageable
+    ) {
+        BookCursor cursor = after == null
+                ? BookCursor.first(pageable.getSort())
+                : BookCursor.decode(after);
+        int size = pageable.getPageSize();
+        List<BookDto> books = bookRepository.findDtos(
+                specification.and(cursor.toSpecification()), cursor.sort(), size + 1);
+        boolean hasNext = books.size() > size;
+        List<BookDto> content = hasNext ? books.subList(0, size) : books;
+        BookCursorPageDto page = new BookCursorPageDto();
+        page.setContent(withCategoryIds(content));
+        page.setHasNext(hasNext);
+        if (hasNext) {
+            page.setNextCursor(cursor.next(content.get(size - 1)).encode());
+        }
+        return page;
+    }
+
+    private List<BookDto> findDtosByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookDto> books = bookRepository.findDtos(
+                        (root, query, criteriaBuilder) -> root.get("id").in(ids),
+                        Sort.unsorted(),
+                        ids.size()
+                ).stream()
+                .collect(Collectors.toMap(BookDto::getId, Function.identity()));
+        return withCategoryIds(ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    private List<BookDto> withCategoryIds(List<BookDto> books) {
+        if (books.isEmpty()) {
+            return books;
+        }
+        Map<Long, List<Long>> categoryIds = bookRepository.findCategoryIdsByBookIds(
+                books.stream().map(BookDto::getId).toList()).stream()
+                .collect(Collectors.groupingBy(
+                        BookCategoryIdView::getBookId,
+                        Collectors.mapping(BookCategoryIdView::getCategoryId, Collectors.toList())
+                ));
+        books.forEach(book -> book.setCategoryIds(
+                categoryIds.getOrDefault(book.getId(), List.of())));
+        return books;
+    }
+
     private void addCategories(Book book, List<Long> categoryIds) {
         List<Category> categories = categoryRepository.findAllById(categoryIds);
         book.setCategories(new HashSet<>(categories));
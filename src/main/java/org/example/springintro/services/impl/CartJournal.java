@@ -0,0 +1,207 @@
+package org.example.springintro.services.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of cart changes split into numbered segments. Every append is
+ * forced to disk before it returns; a segment is deleted once the changes it
+ * records have been written to the database. Appends are group committed: a
+ * single writer thread takes every entry queued since its last write, writes
+ * them together and forces the segment once for the whole batch.
+ */
+final class CartJournal implements Closeable {
+    private static final Pattern SEGMENT = Pattern.compile("cart-(\\d+)\\.journal");
+    private static final PendingEntry STOP = new PendingEntry(null, null);
+
+    private final Path directory;
+    private final BlockingQueue<PendingEntry> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private FileChannel channel;
+    private long segment;
+
+    CartJournal(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create cart journal directory", e);
+        }
+        segment = segments().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+        channel = open(segment);
+        writer = new Thread(this::writeEntries, "cart-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the entry for the writer thread and waits until the batch it was
+     * written with has been forced to disk.
+     */
+    void append(String entry) {
+        if (closed) {
+            throw new IllegalStateException("Cart journal is closed");
+        }
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        pending.add(new PendingEntry(entry, written));
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Closes the current segment, starts the next one and returns the number of
+     * the closed segment.
+     */
+    synchronized long rotate() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't close cart journal segment", e);
+        }
+        segment++;
+        channel = open(segment);
+        return segment - 1;
+    }
+
+    /**
+     * Returns the entries of all segments before the current one, oldest first.
+     * A torn last line left by a crash was never acknowledged and is dropped.
+     */
+    synchronized List<String> readClosedSegments() {
+        List<String> entries = new ArrayList<>();
+        for (long closed : segments()) {
+            if (closed < segment) {
+                try {
+                    String content = Files.readString(path(closed), StandardCharsets.UTF_8);
+                    content.substring(0, content.lastIndexOf('\n') + 1).lines()
+                            .forEach(entries::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Can't read cart journal segment", e);
+                }
+            }
+        }
+        return entries;
+    }
+
+    synchronized long lastClosedSegment() {
+        return segment - 1;
+    }
+
+    void deleteUpTo(long lastSegment) {
+        for (long closed : segments()) {
+            if (closed <= lastSegment) {
+                try {
+                    Files.deleteIfExists(path(closed));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Can't delete cart journal segment", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the entries queued so far, stops the writer thread and closes the
+     * current segment.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pending.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't close cart journal", e);
+            }
+        }
+    }
+
+    private void writeEntries() {
+        List<PendingEntry> batch = new ArrayList<>();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pending.drainTo(batch);
+            stopped = batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private synchronized void write(List<PendingEntry> batch) {
+        StringBuilder entries = new StringBuilder();
+        batch.forEach(pendingEntry -> entries.append(pendingEntry.entry()).append('\n'));
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(entries.toString());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            batch.forEach(pendingEntry -> pendingEntry.written().complete(null));
+        } catch (IOException e) {
+            UncheckedIOException failure =
+                    new UncheckedIOException("Can't append to cart journal", e);
+            batch.forEach(pendingEntry -> pendingEntry.written().completeExceptionally(failure));
+        }
+    }
+
+    private List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't list cart journal segments", e);
+        }
+    }
+
+    private FileChannel open(long number) {
+        try {
+            return FileChannel.open(path(number), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open cart journal segment", e);
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve("cart-" + number + ".journal");
+    }
+
+    private record PendingEntry(String entry, CompletableFuture<Void> written) {
+    }
+}
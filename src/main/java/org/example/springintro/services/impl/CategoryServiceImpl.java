@@ -1,27 +1,31 @@
 package org.example.springintro.services.impl;
 
+import jakarta.transaction.Transactional;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.springintro.dto.category.CategoryDto;
 import org.example.springintro.dto.category.CreateCategoryRequestDto;
+import org.example.springintro.event.CategoryDeletedEvent;
 import org.example.springintro.exception.EntityNotFoundException;
 import org.example.springintro.mapper.CategoryMapper;
 import org.example.springintro.model.Category;
+import org.example.springintro.repository.book.BookRepository;
 import org.example.springintro.repository.categoty.CategoryRepository;
 import org.example.springintro.services.CategoryService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
+    private final BookRepository bookRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<CategoryDto> findAll() {
-        return categoryRepository.findAll().stream()
-                .map(categoryMapper::toDto)
-                .toList();
+        return categoryRepository.findAllDtos();
     }
 
     @Override
@@ -30,6 +34,19 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryMapper.toDto(category);
     }
 
+    @Override
+    public long getVersionById(Long id) {
+        return categoryRepository.findVersionById(id)
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Category not found by id: " + id)
+                );
+    }
+
+    @Override
+    public String getListVersion() {
+        return categoryRepository.findListVersion();
+    }
+
     @Override
     public CategoryDto save(CreateCategoryRequestDto categoryDto) {
         Category category = categoryMapper.toEntity(categoryDto);
@@ -44,8 +61,11 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        bookRepository.incrementVersionsByCategoryId(id);
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryDeletedEvent(id));
     }
 
     private Category findByIdOrThrow(Long id) {
@@ -0,0 +1,179 @@
+package org.example.springintro.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import org.example.springintro.services.BookCoverService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the thumbnail variants of a stored cover next to it on a pool of one
+ * thread per core. Concurrent requests for the same cover share one task, and
+ * a full queue rejects new work instead of growing without bound. A variant
+ * that can't be scaled down, because the cover is already narrow enough or
+ * can't be decoded, links to the original, so it is settled only once.
+ */
+@Component
+public class CoverThumbnailGenerator {
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final Map<Path, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public CoverThumbnailGenerator(@Value("${books.covers.thumbnail-threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "cover-thumbnail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static Path thumbnailPath(Path original, BookCoverService.Variant variant) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return original.resolveSibling(name.substring(0, dot) + "-"
+                + variant.name().toLowerCase(Locale.ROOT) + name.substring(dot));
+    }
+
+    /**
+     * Schedules the missing variants of the cover. The future completes when
+     * they are written, or exceptionally when generation failed or was rejected.
+     */
+    public CompletableFuture<Void> generate(Path original) {
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(original, task);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeThumbnails(original);
+                    inFlight.remove(original, task);
+                    task.complete(null);
+                } catch (RuntimeException e) {
+                    inFlight.remove(original, task);
+                    task.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(original, task);
+            task.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void writeThumbnails(Path original) {
+        try {
+            BufferedImage image = null;
+            boolean decoded = false;
+            for (BookCoverService.Variant variant : BookCoverService.Variant.values()) {
+                Path target = thumbnailPath(original, variant);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                if (!decoded) {
+                    image = decode(original);
+                    decoded = true;
+                }
+                if (image == null || image.getWidth() <= variant.width()
+                        || !write(scale(image, variant.width(), format(original)),
+                                format(original), target)) {
+                    linkOriginal(original, target);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create thumbnails of " + original, e);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image, int width, String format) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, "jpg".equals(format)
+                ? BufferedImage.TYPE_INT_RGB
+                : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+                    RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private BufferedImage decode(Path original) throws IOException {
+        try {
+            return ImageIO.read(original.toFile());
+        } catch (IIOException e) {
+            return null;
+        }
+    }
+
+    private boolean write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "thumbnail-", ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Stored covers never change, so a hard link is as good as a copy; file
+     * systems without hard links get a copy.
+     */
+    private void linkOriginal(Path original, Path target) throws IOException {
+        try {
+            Files.createLink(target, original);
+        } catch (UnsupportedOperationException e) {
+            Path temp = Files.createTempFile(target.getParent(), "thumbnail-", ".tmp");
+            try {
+                Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private String format(Path original) {
+        String name = original.getFileName().toString();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.springintro.services.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class CsvLineParser {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private CsvLineParser() {
+    }
+
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char current = line.charAt(i);
+            if (quoted) {
+                if (current == QUOTE && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else if (current == QUOTE) {
+                    quoted = false;
+                } else {
+                    field.append(current);
+                }
+            } else if (current == QUOTE) {
+                quoted = true;
+            } else if (current == SEPARATOR) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(current);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -3,7 +3,10 @@ package org.example.springintro.services.impl;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +14,7 @@ import org.example.springintro.dto.order.OrderDto;
 import org.example.springintro.dto.order.OrderItemDto;
 import org.example.springintro.dto.order.OrderRequestDto;
 import org.example.springintro.dto.order.OrderStatusUpdateDto;
+import org.example.springintro.event.OrderPlacedEvent;
 import org.example.springintro.exception.EntityNotFoundException;
 import org.example.springintro.mapper.OrderMapper;
 import org.example.springintro.model.Order;
@@ -22,6 +26,8 @@ import org.example.springintro.repository.order.OrderItemRepository;
 import org.example.springintro.repository.order.OrderRepository;
 import org.example.springintro.repository.shoppingcart.ShoppingCartRepository;
 import org.example.springintro.services.OrderService;
+import org.example.springintro.services.ShoppingCartService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -31,14 +37,18 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
     private final ShoppingCartRepository shoppingCartRepository;
+    private final ShoppingCartService shoppingCartService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public OrderDto placeOrder(User user, OrderRequestDto requestDto) {
+        shoppingCartService.flushCart(user.getId());
         ShoppingCart cart = getAndValidateCart(user.getId());
         Order order = createOrderFromCart(cart, requestDto);
         orderRepository.save(order);
         shoppingCartRepository.delete(cart);
+        eventPublisher.publishEvent(toPlacedEvent(order));
         return orderMapper.toDto(order);
     }
 
@@ -108,6 +118,15 @@ public class OrderServiceImpl implements OrderService {
         return order;
     }
 
+    private OrderPlacedEvent toPlacedEvent(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getBook().getId(), item.getQuantity(), Integer::sum);
+        }
+        return new OrderPlacedEvent(order.getId(),
+                order.getOrderDate().atZone(ZoneId.systemDefault()).toInstant(), quantities);
+    }
+
     private BigDecimal calculateTotal(Set<OrderItem> orderItems) {
         return orderItems.stream()
                 .map(OrderItem::getPrice)
@@ -1,13 +1,12 @@
 package org.example.springintro.services.impl;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.springintro.cache.BookCache;
 import org.example.springintro.dto.shoppingcart.AddToCartRequestDto;
 import org.example.springintro.dto.shoppingcart.ShoppingCartDto;
 import org.example.springintro.dto.shoppingcart.UpdateCartItemRequestDto;
 import org.example.springintro.exception.EntityNotFoundException;
 import org.example.springintro.mapper.ShoppingCartMapper;
-import org.example.springintro.model.Book;
 import org.example.springintro.model.CartItem;
 import org.example.springintro.model.ShoppingCart;
 import org.example.springintro.model.User;
@@ -15,15 +14,22 @@ import org.example.springintro.repository.book.BookRepository;
 import org.example.springintro.repository.shoppingcart.CartItemRepository;
 import org.example.springintro.repository.shoppingcart.ShoppingCartRepository;
 import org.example.springintro.services.ShoppingCartService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnProperty(name = "books.cart.write-behind", havingValue = "false",
+        matchIfMissing = true)
 @RequiredArgsConstructor
 public class ShoppingCartServiceImpl implements ShoppingCartService {
+    private static final int MAX_UPSERT_ATTEMPTS = 5;
+
     private final ShoppingCartRepository shoppingCartRepository;
     private final CartItemRepository cartItemRepository;
     private final BookRepository bookRepository;
     private final ShoppingCartMapper shoppingCartMapper;
+    private final BookCache bookCache;
 
     @Override
     public ShoppingCartDto getCartForCurrentUser(Long userId) {
@@ -61,30 +67,31 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         return shoppingCartMapper.toDto(cartItem.getShoppingCart());
     }
 
+    /**
+     * Adds the quantity with a single upsert against the unique
+     * (shopping_cart_id, book_id) key, so concurrent adds of the same book
+     * neither create duplicate rows nor lose updates. InnoDB may still pick one
+     * of two racing upserts as a deadlock victim; the victim is rolled back
+     * without applying its increment, so it is retried in a new transaction.
+     */
     @Override
-    @Transactional
     public ShoppingCartDto addBookToCart(AddToCartRequestDto itemDto, User user) {
-        ShoppingCart shoppingCart = findShoppingCartByUserId(user.getId());
-        Book book = findBookById(itemDto.getBookId());
-        shoppingCart.getCartItems().stream()
-                .filter(item -> item.getBook().getId().equals(itemDto.getBookId()))
-                .findFirst()
-                .ifPresentOrElse(
-                        item -> item.setQuantity(item.getQuantity() + itemDto.getQuantity()),
-                        () -> addCartItemToCart(itemDto, book, shoppingCart));
-        shoppingCartRepository.save(shoppingCart);
-        return shoppingCartMapper.toDto(shoppingCart);
-    }
-
-    private void addCartItemToCart(
-            AddToCartRequestDto itemDto,
-            Book book,
-            ShoppingCart shoppingCart) {
-        CartItem cartItem = new CartItem();
-        cartItem.setBook(book);
-        cartItem.setQuantity(itemDto.getQuantity());
-        cartItem.setShoppingCart(shoppingCart);
-        shoppingCart.getCartItems().add(cartItem);
+        Long shoppingCartId = shoppingCartRepository.findIdByUserId(user.getId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Shopping cart not found for user id: " + user.getId()));
+        checkBookExists(itemDto.getBookId());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                cartItemRepository.addQuantity(shoppingCartId, itemDto.getBookId(),
+                        itemDto.getQuantity());
+                break;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt == MAX_UPSERT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        return shoppingCartMapper.toDto(findShoppingCartByUserId(user.getId()));
     }
 
     private ShoppingCart findShoppingCartByUserId(Long userId) {
@@ -97,8 +104,9 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
                         "CartItem with ID " + cartItemId + " not found"));
     }
 
-    private Book findBookById(Long bookId) {
-        return bookRepository.findById(bookId)
-                .orElseThrow(() -> new EntityNotFoundException("Book not found"));
+    private void checkBookExists(Long bookId) {
+        if (!bookCache.contains(bookId) && !bookRepository.existsById(bookId)) {
+            throw new EntityNotFoundException("Book not found");
+        }
     }
 }
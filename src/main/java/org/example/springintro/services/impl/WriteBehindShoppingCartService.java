@@ -0,0 +1,420 @@
+package org.example.springintro.services.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.dto.shoppingcart.AddToCartRequestDto;
+import org.example.springintro.dto.shoppingcart.CartItemResponseDto;
+import org.example.springintro.dto.shoppingcart.ShoppingCartDto;
+import org.example.springintro.dto.shoppingcart.UpdateCartItemRequestDto;
+import org.example.springintro.exception.EntityNotFoundException;
+import org.example.springintro.model.CartItem;
+import org.example.springintro.model.ShoppingCart;
+import org.example.springintro.model.User;
+import org.example.springintro.repository.shoppingcart.ShoppingCartRepository;
+import org.example.springintro.services.BookService;
+import org.example.springintro.services.ShoppingCartService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps active carts in memory, keyed by user id and guarded by striped locks.
+ * Reads never touch the database once a cart is loaded. Every change is forced
+ * to a local journal before it is acknowledged and written to
+ * {@code cart_items} by a periodic flush that coalesces all changes of an item
+ * into one row write. On startup the journal is replayed into the database, so
+ * acknowledged changes survive a crash. New items get ids from a counter seeded
+ * with the highest id in use, so this engine must be the only writer of cart
+ * items and the application must run as a single instance.
+ */
+@Service
+@ConditionalOnProperty(name = "books.cart.write-behind", havingValue = "true")
+public class WriteBehindShoppingCartService implements ShoppingCartService {
+    private static final String UPSERT_ITEM = """
+            INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity)
+            VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)""";
+    private static final String DELETE_ITEM = "DELETE FROM cart_items WHERE id = ?";
+    private static final String SELECT_MAX_ITEM_ID = """
+            SELECT GREATEST(
+                (SELECT COALESCE(MAX(id), 0) FROM cart_items),
+                (SELECT COALESCE(MAX(id), 0) FROM cart_items_archive))""";
+    private static final int STRIPES = 64;
+
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final BookService bookService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CartJournal journal;
+    private final long idleTimeoutNanos;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = new HashSet<>();
+    private final AtomicLong lastItemId = new AtomicLong();
+
+    public WriteBehindShoppingCartService(
+            ShoppingCartRepository shoppingCartRepository,
+            BookService bookService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${books.cart.journal-directory:cart-journal}") Path journalDirectory,
+            @Value("${books.cart.idle-timeout:PT30M}") Duration idleTimeout
+    ) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.bookService = bookService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.journal = new CartJournal(journalDirectory);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Writes the changes left in the journal by the previous run before any
+     * cart is served, then seeds the item id counter.
+     */
+    @PostConstruct
+    public void recover() {
+        long lastSegment = journal.lastClosedSegment();
+        Map<Long, Object[]> upserts = new LinkedHashMap<>();
+        Set<Long> deletes = new LinkedHashSet<>();
+        for (String entry : journal.readClosedSegments()) {
+            String[] fields = entry.split(" ");
+            long itemId = Long.parseLong(fields[3]);
+            if (fields[0].equals("P")) {
+                deletes.remove(itemId);
+                upserts.put(itemId, new Object[] {itemId, Long.parseLong(fields[2]),
+                        Long.parseLong(fields[4]), Integer.parseInt(fields[5])});
+            } else {
+                upserts.remove(itemId);
+                deletes.add(itemId);
+            }
+        }
+        if (!upserts.isEmpty() || !deletes.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchUpdate(DELETE_ITEM, deletes.stream().map(id -> new Object[] {id}).toList());
+                batchUpdate(UPSERT_ITEM, List.copyOf(upserts.values()));
+            });
+        }
+        journal.deleteUpTo(lastSegment);
+        lastItemId.set(jdbcTemplate.queryForObject(SELECT_MAX_ITEM_ID, Long.class));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Override
+    public ShoppingCartDto getCartForCurrentUser(Long userId) {
+        return withCart(userId, cart -> toDto(userId, cart));
+    }
+
+    @Override
+    public void createShoppingCart(User user) {
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setUser(user);
+        shoppingCartRepository.save(shoppingCart);
+    }
+
+    @Override
+    public void removeBookFromCart(Long cartItemId, User user) {
+        withCart(user.getId(), cart -> {
+            Item item = findItem(cart, cartItemId);
+            append(user.getId(), "D " + user.getId() + " " + cart.cartId + " " + item.id());
+            cart.items.remove(item.id());
+            cart.changedItemIds.remove(item.id());
+            cart.removedItemIds.add(item.id());
+            return null;
+        });
+    }
+
+    @Override
+    public ShoppingCartDto updateBookQuantity(
+            Long cartItemId,
+            UpdateCartItemRequestDto requestDto,
+            User user) {
+        return withCart(user.getId(), cart -> {
+            Item item = findItem(cart, cartItemId);
+            put(user.getId(), cart, new Item(item.id(), item.bookId(), item.bookTitle(),
+                    requestDto.getQuantity()));
+            return toDto(user.getId(), cart);
+        });
+    }
+
+    @Override
+    public ShoppingCartDto addBookToCart(AddToCartRequestDto itemDto, User user) {
+        BookDto book = bookService.findById(itemDto.getBookId());
+        return withCart(user.getId(), cart -> {
+            Item item = cart.items.values().stream()
+                    .filter(existing -> existing.bookId().equals(book.getId()))
+                    .findFirst()
+                    .map(existing -> new Item(existing.id(), existing.bookId(),
+                            existing.bookTitle(), existing.quantity() + itemDto.getQuantity()))
+                    .orElseGet(() -> new Item(lastItemId.incrementAndGet(), book.getId(),
+                            book.getTitle(), itemDto.getQuantity()));
+            put(user.getId(), cart, item);
+            return toDto(user.getId(), cart);
+        });
+    }
+
+    /**
+     * Writes all pending changes and drops the user's cart from memory, so the
+     * caller can read and change it through the repositories.
+     */
+    @Override
+    public void flushCart(Long userId) {
+        flushLock.lock();
+        try {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                flushDirty();
+                carts.remove(userId);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${books.cart.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushDirty();
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Rotates the journal before taking the dirty users. A change in a closed
+     * segment was marked dirty before it was journaled, so its user is taken
+     * here, and the user's lock is only granted once the change is in memory.
+     */
+    private void flushDirty() {
+        synchronized (dirtyUsers) {
+            if (dirtyUsers.isEmpty()) {
+                return;
+            }
+        }
+        final long segment = journal.rotate();
+        Set<Long> users;
+        synchronized (dirtyUsers) {
+            users = new HashSet<>(dirtyUsers);
+            dirtyUsers.clear();
+        }
+        List<Snapshot> snapshots = new ArrayList<>(users.size());
+        for (Long userId : users) {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                CartState cart = carts.get(userId);
+                snapshots.add(new Snapshot(userId, cart.cartId,
+                        cart.changedItemIds.stream().map(cart.items::get).toList(),
+                        Set.copyOf(cart.removedItemIds)));
+                cart.changedItemIds.clear();
+                cart.removedItemIds.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(snapshots));
+        } catch (RuntimeException e) {
+            restore(users, snapshots);
+            throw e;
+        }
+        journal.deleteUpTo(segment);
+    }
+
+    private void write(List<Snapshot> snapshots) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        for (Snapshot snapshot : snapshots) {
+            snapshot.removedItemIds().forEach(id -> deletes.add(new Object[] {id}));
+            for (Item item : snapshot.changedItems()) {
+                upserts.add(new Object[] {item.id(), snapshot.cartId(), item.bookId(),
+                        item.quantity()});
+            }
+        }
+        batchUpdate(DELETE_ITEM, deletes);
+        batchUpdate(UPSERT_ITEM, upserts);
+    }
+
+    private void restore(Set<Long> users, List<Snapshot> snapshots) {
+        for (Snapshot snapshot : snapshots) {
+            ReentrantLock lock = lockFor(snapshot.userId());
+            lock.lock();
+            try {
+                CartState cart = carts.get(snapshot.userId());
+                snapshot.changedItems().stream()
+                        .filter(item -> cart.items.containsKey(item.id()))
+                        .forEach(item -> cart.changedItemIds.add(item.id()));
+                cart.removedItemIds.addAll(snapshot.removedItemIds());
+            } finally {
+                lock.unlock();
+            }
+        }
+        synchronized (dirtyUsers) {
+            dirtyUsers.addAll(users);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Long userId : carts.keySet()) {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                CartState cart = carts.get(userId);
+                synchronized (dirtyUsers) {
+                    if (cart != null && now - cart.lastAccess > idleTimeoutNanos
+                            && !dirtyUsers.contains(userId)) {
+                        carts.remove(userId);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private <T> T withCart(Long userId, Function<CartState, T> action) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            CartState cart = carts.get(userId);
+            if (cart == null) {
+                cart = load(userId);
+                carts.put(userId, cart);
+            }
+            cart.lastAccess = System.nanoTime();
+            return action.apply(cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CartState load(Long userId) {
+        ShoppingCart shoppingCart = shoppingCartRepository.findByUserId(userId);
+        if (shoppingCart == null) {
+            throw new EntityNotFoundException("Shopping cart not found for user id: " + userId);
+        }
+        CartState cart = new CartState(shoppingCart.getId());
+        shoppingCart.getCartItems().stream()
+                .sorted(Comparator.comparing(CartItem::getId))
+                .forEach(item -> cart.items.put(item.getId(), new Item(item.getId(),
+                        item.getBook().getId(), item.getBook().getTitle(),
+                        item.getQuantity())));
+        return cart;
+    }
+
+    private void put(Long userId, CartState cart, Item item) {
+        append(userId, "P " + userId + " " + cart.cartId + " " + item.id() + " "
+                + item.bookId() + " " + item.quantity());
+        cart.items.put(item.id(), item);
+        cart.changedItemIds.add(item.id());
+    }
+
+    /**
+     * Marks the user dirty and then journals the entry. Called with the user's
+     * lock held, which a flush needs before it reads the cart.
+     */
+    private void append(Long userId, String entry) {
+        synchronized (dirtyUsers) {
+            dirtyUsers.add(userId);
+        }
+        journal.append(entry);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        return locks[Math.floorMod(Long.hashCode(userId), STRIPES)];
+    }
+
+    private static Item findItem(CartState cart, Long cartItemId) {
+        Item item = cart.items.get(cartItemId);
+        if (item == null) {
+            throw new EntityNotFoundException("CartItem with ID " + cartItemId + " not found");
+        }
+        return item;
+    }
+
+    private static ShoppingCartDto toDto(Long userId, CartState cart) {
+        ShoppingCartDto dto = new ShoppingCartDto();
+        dto.setId(cart.cartId);
+        dto.setUserId(userId);
+        dto.setCartItems(cart.items.values().stream()
+                .map(item -> {
+                    CartItemResponseDto itemDto = new CartItemResponseDto();
+                    itemDto.setId(item.id());
+                    itemDto.setBookId(item.bookId());
+                    itemDto.setBookTitle(item.bookTitle());
+                    itemDto.setQuantity(item.quantity());
+                    return itemDto;
+                })
+                .toList());
+        return dto;
+    }
+
+    private static final class CartState {
+        private final Long cartId;
+        private final Map<Long, Item> items = new LinkedHashMap<>();
+        private final Set<Long> changedItemIds = new LinkedHashSet<>();
+        private final Set<Long> removedItemIds = new HashSet<>();
+        private long lastAccess;
+
+        private CartState(Long cartId) {
+            this.cartId = cartId;
+        }
+    }
+
+    private record Item(Long id, Long bookId, String bookTitle, int quantity) {
+    }
+
+    private record Snapshot(
+            Long userId,
+            Long cartId,
+            List<Item> changedItems,
+            Set<Long> removedItemIds
+    ) {
+    }
+}
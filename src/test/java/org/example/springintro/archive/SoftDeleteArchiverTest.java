@@ -0,0 +1,76 @@
+package org.example.springintro.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeleteArchiverTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("archive() - Given expired deleted orders, When archiving,"
+            + " Then moves them with their items in keyset batches and reports progress")
+    void archive_ExpiredOrders_MovesInBatches() {
+        // Given
+        SoftDeleteArchiver archiver = new SoftDeleteArchiver(namedParameterJdbcTemplate,
+                transactionTemplate, Duration.ofDays(30), 2, Duration.ZERO);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        archiver.bindTo(registry);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(namedParameterJdbcTemplate.queryForList(startsWith("SELECT t.id FROM orders"),
+                any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        // When
+        archiver.archive();
+
+        // Then
+        InOrder order = inOrder(namedParameterJdbcTemplate);
+        for (int batch = 0; batch < 2; batch++) {
+            order.verify(namedParameterJdbcTemplate).update(
+                    startsWith("INSERT INTO order_items_archive"), any(SqlParameterSource.class));
+            order.verify(namedParameterJdbcTemplate).update(
+                    startsWith("DELETE FROM order_items"), any(SqlParameterSource.class));
+            order.verify(namedParameterJdbcTemplate).update(
+                    startsWith("INSERT INTO orders_archive"), any(SqlParameterSource.class));
+            order.verify(namedParameterJdbcTemplate).update(
+                    startsWith("DELETE FROM orders"), any(SqlParameterSource.class));
+        }
+        order.verify(namedParameterJdbcTemplate, never()).update(
+                startsWith("INSERT INTO books_archive"), any(SqlParameterSource.class));
+        assertThat(registry.get("archive.rows").tag("table", "orders").functionCounter()
+                .count()).isEqualTo(3);
+        assertThat(registry.get("archive.batches").tag("table", "orders").functionCounter()
+                .count()).isEqualTo(2);
+        assertThat(registry.get("archive.last.id").tag("table", "orders").gauge().value())
+                .isEqualTo(3);
+        assertThat(registry.get("archive.rows").tag("table", "books").functionCounter()
+                .count()).isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.springintro.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.example.springintro.dto.book.BookSearchParameters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+class SearchResultCacheTest {
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private CatalogGeneration catalogGeneration;
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        catalogGeneration = new CatalogGeneration();
+        catalogGeneration.markReady();
+        cache = new SearchResultCache(catalogGeneration, 100);
+    }
+
+    @Test
+    @DisplayName("key() - Given equivalent parameters, When building keys,"
+            + " Then keys are equal")
+    void key_EquivalentParameters_AreEqual() {
+        SearchResultCache.Key first = cache.key(new BookSearchParameters(
+                new String[]{"Dune", "Emma"}, new String[]{"Austen"}, null,
+                new Long[]{2L, 1L}, null, new BigDecimal("10.00"), null), pageable);
+        SearchResultCache.Key second = cache.key(new BookSearchParameters(
+                new String[]{" emma", "DUNE", "dune"}, new String[]{"austen"}, " ",
+                new Long[]{1L, 2L, 1L}, BookSearchParameters.CategoryMatch.ANY,
+                BigDecimal.TEN, null), pageable);
+
+        assertThat(first).isEqualTo(second);
+        assertThat(cache.key(new BookSearchParameters(new String[]{"Dune"}, null, null,
+                null, null, null, null), PageRequest.of(1, 20))).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("get() - Given catalog write after caching, When looking up,"
+            + " Then misses until the new generation is cached")
+    void get_AfterCatalogWrite_Misses() {
+        BookSearchParameters params = new BookSearchParameters(new String[]{"Dune"}, null,
+                null, null, null, null, null);
+        SearchResultCache.Key key = cache.key(params, pageable);
+        cache.put(key, List.of(3L, 1L));
+
+        assertThat(cache.get(cache.key(params, pageable))).containsExactly(3L, 1L);
+
+        catalogGeneration.advance();
+
+        assertThat(cache.get(cache.key(params, pageable))).isNull();
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    @DisplayName("put() - Given key from a previous generation, When storing,"
+            + " Then ignores the stale result")
+    void put_StaleGeneration_IsIgnored() {
+        BookSearchParameters params = new BookSearchParameters(null, null, "dune",
+                null, null, null, null);
+        SearchResultCache.Key key = cache.key(params, pageable);
+
+        catalogGeneration.advance();
+        cache.put(key, List.of(1L));
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    @DisplayName("put() - Given indexes not built yet, When storing,"
+            + " Then ignores the result until they are")
+    void put_IndexesNotReady_IsIgnored() {
+        CatalogGeneration startingGeneration = new CatalogGeneration();
+        SearchResultCache startingCache = new SearchResultCache(startingGeneration, 100);
+        BookSearchParameters params = new BookSearchParameters(null, null, "dune",
+                null, null, null, null);
+        startingCache.put(startingCache.key(params, pageable), List.of(1L));
+
+        assertThat(startingCache.get(startingCache.key(params, pageable))).isNull();
+
+        startingGeneration.markReady();
+        startingCache.put(startingCache.key(params, pageable), List.of(1L));
+
+        assertThat(startingCache.get(startingCache.key(params, pageable))).containsExactly(1L);
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.springintro.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+    @Test
+    @DisplayName("get() - Given repeated keys, When loading, Then loads each key once")
+    public void get_RepeatedKeys_LoadsOnce() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(1, key -> "book-" + loads.incrementAndGet());
+        }
+
+        assertThat(cache.get(1, key -> "other")).isEqualTo("book-1");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.hits()).isEqualTo(3);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get() - Given a scan of one-off keys, When cache is full,"
+            + " Then frequently read keys survive")
+    public void get_ScanOfOneOffKeys_KeepsHotKeys() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                cache.get(hot, key -> key);
+            }
+        }
+
+        for (int cold = 1000; cold < 3000; cold++) {
+            cache.get(cold, key -> key);
+        }
+
+        int survivors = 0;
+        for (int hot = 0; hot < 50; hot++) {
+            survivors += cache.contains(hot) ? 1 : 0;
+        }
+        assertThat(survivors).isGreaterThanOrEqualTo(45);
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.evictions()).isPositive();
+    }
+
+    @Test
+    @DisplayName("get() - Given invalidation during load, When load completes,"
+            + " Then the stale value is not cached")
+    public void get_InvalidatedDuringLoad_DoesNotCache() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10);
+
+        String value = cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.contains(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("getAll() - Given cached and missing keys, When loading,"
+            + " Then loads only the missing keys in one call")
+    public void getAll_CachedAndMissingKeys_LoadsMissingOnce() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10);
+        cache.get(1, key -> "one");
+        List<Set<Integer>> loads = new ArrayList<>();
+
+        Map<Integer, String> values = cache.getAll(List.of(3, 1, 2, 3), keys -> {
+            loads.add(keys);
+            return Map.of(2, "two");
+        });
+
+        assertThat(values).containsOnly(Map.entry(1, "one"), Map.entry(2, "two"));
+        assertThat(loads).containsExactly(Set.of(3, 2));
+        assertThat(cache.contains(2)).isTrue();
+        assertThat(cache.contains(3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("get() - Given concurrent readers and writers, When done,"
+            + " Then every cached value is the loaded one and the capacity holds")
+    void get_ConcurrentAccess_StaysConsistent() throws InterruptedException {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int key = (i * 31 + seed) % 500;
+                    cache.get(key, k -> k * 2);
+                    if (i % 100 == 0) {
+                        cache.invalidate(key);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int key = 0; key < 500; key++) {
+            assertThat(cache.get(key, k -> k * 2)).isEqualTo(key * 2);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.hits() + cache.misses()).isEqualTo(8 * 20_000 + 500);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.springintro.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
@@ -12,6 +13,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -25,6 +27,8 @@ import org.example.springintro.dto.book.CreateBookRequestDto;
 import org.example.springintro.model.Book;
 import org.example.springintro.model.Category;
 import org.example.springintro.util.BookTestUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -34,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -42,7 +47,10 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
 class BookControllerTest {
     protected static MockMvc mockMvc;
 
@@ -52,6 +60,9 @@ class BookControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeAll
     static void beforeAll(
             @Autowired DataSource dataSource,
@@ -225,6 +236,31 @@ class BookControllerTest {
         assertEquals(expected, Arrays.stream(actual).toList());
     }
 
+    @WithMockUser(username = "user", authorities = {"USER"})
+    @Test
+    @DisplayName("Get all books - Categories are loaded with one query per page")
+    void getAll_GivenBooksWithCategories_ExecutesFixedNumberOfQueries() throws Exception {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // When
+        MvcResult result = mockMvc.perform(
+                        get("/books")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        BookDto[] actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(),
+                BookDto[].class);
+        assertEquals(3, actual.length);
+        assertEquals(List.of(1L), actual[2].getCategoryIds());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
     @WithMockUser(username = "user", authorities = {"USER"})
     @Test
     @DisplayName("Get book by ID")
@@ -245,6 +281,63 @@ class BookControllerTest {
         assertEquals("Author 1", actual.getAuthor());
     }
 
+    @WithMockUser(username = "user", authorities = {"USER"})
+    @Test
+    @DisplayName("Get book by ID - Matching ETag")
+    void getBookById_MatchingEtag_ReturnsNotModified() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/books/" + EXISTING_ID))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult result = mockMvc.perform(
+                        get("/books/" + EXISTING_ID)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // Then
+        assertNotNull(etag);
+        assertEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @WithMockUser(username = "admin", authorities = {"USER", "ADMIN"})
+    @Test
+    @DisplayName("Get book by ID - ETag of an updated book")
+    void getBookById_UpdatedBook_ReturnsNewEtag() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/books/" + EXISTING_ID))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        CreateBookRequestDto requestDto = BookTestUtils.createBookRequestDto();
+        requestDto.setTitle("Updated Book Title");
+        mockMvc.perform(put("/books/" + EXISTING_ID)
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // When
+        MvcResult result = mockMvc.perform(
+                        get("/books/" + EXISTING_ID)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        BookDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(),
+                BookDto.class
+        );
+        assertEquals("Updated Book Title", actual.getTitle());
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
     @WithMockUser(username = "user", authorities = {"USER"})
     @Test
     @DisplayName("Get book by ID - Non Existing Book")
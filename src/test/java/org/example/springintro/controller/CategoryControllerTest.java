@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -181,6 +182,43 @@ class CategoryControllerTest {
         assertEquals("Fiction", actual.getName());
     }
 
+    @WithMockUser(username = "user", authorities = {"USER"})
+    @Test
+    @DisplayName("Get all categories - Matching ETag")
+    void getAll_MatchingEtag_ReturnsNotModified() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/categories")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // Then
+        assertNotNull(etag);
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @WithMockUser(username = "user", authorities = {"USER"})
+    @Test
+    @DisplayName("Get Category by ID - Stale ETag")
+    void getCategoryById_StaleEtag_ReturnsCategory() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/categories/" + EXISTING_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + EXISTING_ID + "-999\""))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertEquals("\"" + EXISTING_ID + "-0\"",
+                result.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
     @WithMockUser(username = "user", authorities = {"USER"})
     @Test
     @DisplayName("Get Category by ID - Non-existing Category")
@@ -0,0 +1,128 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.example.springintro.dto.book.BookFacetsDto;
+import org.example.springintro.dto.book.FacetCountDto;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class BookFacetIndexTest {
+    private static final Set<BookFacetsDto.Facet> ALL_FACETS =
+            EnumSet.allOf(BookFacetsDto.Facet.class);
+
+    private BookFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookFacetIndex();
+        index.index(createBook(1L, "Dune", "Herbert", "9.99", 1L, 2L));
+        index.index(createBook(2L, "Emma", "Austen", "150", 2L));
+        index.index(createBook(3L, "Persuasion", "Austen", "30", 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("count() - Given no filters, When counting, Then counts every book once")
+    void count_NoFilters_CountsAllBooks() {
+        BookFacetIndex.Counts counts = index.count(null, null, null, ALL_FACETS);
+
+        assertThat(counts.total()).isEqualTo(3);
+        assertThat(counts.facets().getCategories()).containsExactly(
+                new FacetCountDto("2", 3), new FacetCountDto("1", 1), new FacetCountDto("3", 1));
+        assertThat(counts.facets().getAuthors()).containsExactly(
+                new FacetCountDto("Austen", 2), new FacetCountDto("Herbert", 1));
+        assertThat(counts.facets().getPrices()).extracting(FacetCountDto::count)
+                .containsExactly(1L, 0L, 1L, 0L, 1L);
+    }
+
+    @Test
+    @DisplayName("match() - Given titles and authors in another case, When matching,"
+            + " Then ignores case and surrounding blanks like the database")
+    void match_DifferentCase_MatchesIgnoringCase() {
+        assertThat(index.match(Set.of("dune ", "EMMA"), null).toArray()).containsExactly(1, 2);
+        assertThat(index.match(null, Set.of("austen")).toArray()).containsExactly(2, 3);
+        assertThat(index.match(Set.of("persuasion"), Set.of("Herbert")).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("count() - Given titles and authors in another case, When counting,"
+            + " Then counts them like the database")
+    void count_DifferentCase_CountsIgnoringCase() {
+        BookFacetIndex.Counts counts = index.count(null, Set.of(" dune", "PERSUASION"),
+                Set.of("herbert", "austen "), EnumSet.of(BookFacetsDto.Facet.AUTHOR));
+
+        assertThat(counts.total()).isEqualTo(2);
+        assertThat(counts.facets().getAuthors()).containsExactly(
+                new FacetCountDto("Austen", 1), new FacetCountDto("Herbert", 1));
+    }
+
+    @Test
+    @DisplayName("count() - Given id and author filters, When counting,"
+            + " Then counts only matching books")
+    void count_IdAndAuthorFilters_CountsMatches() {
+        BookFacetIndex.Counts counts = index.count(RoaringBitmap.bitmapOf(1, 3), null,
+                Set.of("Austen"), EnumSet.of(BookFacetsDto.Facet.AUTHOR));
+
+        assertThat(counts.total()).isEqualTo(1);
+        assertThat(counts.facets().getAuthors()).containsExactly(new FacetCountDto("Austen", 1));
+        assertThat(counts.facets().getPrices()).isNull();
+    }
+
+    @Test
+    @DisplayName("count() - Given updated book and deleted category, When counting,"
+            + " Then reflects the changes")
+    void count_AfterWrites_RebuildsSnapshot() {
+        index.count(null, null, null, ALL_FACETS);
+        index.index(createBook(1L, "Dune", "Herbert", "9.99", 3L));
+        index.remove(2L);
+        index.removeCategory(2L);
+
+        BookFacetIndex.Counts counts = index.count(null, Set.of("Dune", "Persuasion"), null,
+                ALL_FACETS);
+
+        assertThat(counts.total()).isEqualTo(2);
+        assertThat(counts.facets().getCategories()).containsExactly(new FacetCountDto("3", 2));
+    }
+
+    @Test
+    @DisplayName("count() - Given books added and repriced after counting, When counting"
+            + " again, Then merges them with the unchanged books")
+    void count_AddedAndRepricedBooks_MergesIntoSnapshot() {
+        index.count(null, null, null, ALL_FACETS);
+        index.index(createBook(5L, "Ubik", "Dick", "12", 4L));
+        index.updatePrices(Map.of(1L, new BigDecimal("60"), 9L, BigDecimal.ONE));
+
+        BookFacetIndex.Counts counts = index.count(RoaringBitmap.bitmapOf(1, 3, 5), null, null,
+                ALL_FACETS);
+
+        assertThat(counts.total()).isEqualTo(3);
+        assertThat(counts.facets().getCategories()).containsExactly(new FacetCountDto("2", 2),
+                new FacetCountDto("1", 1), new FacetCountDto("3", 1), new FacetCountDto("4", 1));
+        assertThat(counts.facets().getPrices()).extracting(FacetCountDto::count)
+                .containsExactly(0L, 1L, 1L, 1L, 0L);
+        assertThat(index.match(Set.of("ubik"), Set.of("DICK")).toArray()).containsExactly(5);
+    }
+
+    private Book createBook(Long id, String title, String author, String price,
+            Long... categoryIds) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPrice(new BigDecimal(price));
+        for (Long categoryId : categoryIds) {
+            Category category = new Category();
+            category.setId(categoryId);
+            book.getCategories().add(category);
+        }
+        return book;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.springintro.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookFullTextIndexTest {
+    private BookFullTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookFullTextIndex();
+        index.index(createBook(1L, "The Hobbit", "J. R. R. Tolkien", "A journey to the mountain"));
+        index.index(createBook(2L, "The Silmarillion", "J. R. R. Tolkien", "Elder days"));
+        index.index(createBook(3L, "Dune", "Frank Herbert", "A desert planet and a hobbit"));
+    }
+
+    @Test
+    @DisplayName("search() - Given indexed books, When searching by word,"
+            + " Then ranks title matches above description matches")
+    void search_WordInTitleAndDescription_RanksTitleFirst() {
+        assertThat(index.search("hobbit", 0, 10)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("search() - Given accented and mixed case query,"
+            + " When searching, Then matches normalized terms")
+    void search_MixedCaseQuery_MatchesNormalizedTerms() {
+        assertThat(index.search("TÓLKIEN", 0, 10)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("search() - Given updated and removed books,"
+            + " When searching, Then reflects latest catalog state")
+    void search_AfterUpdateAndRemove_ReflectsLatestState() {
+        index.index(createBook(1L, "Unfinished Tales", "J. R. R. Tolkien", "Stories"));
+        index.remove(3L);
+
+        assertThat(index.search("hobbit", 0, 10)).isEmpty();
+        assertThat(index.search("tales", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("index() - Given repeated updates and removals,"
+            + " When indexing, Then reuses freed doc slots")
+    void index_RepeatedUpdates_ReusesDocSlots() {
+        for (int i = 0; i < 100; i++) {
+            index.index(createBook(1L, "The Hobbit " + i, "J. R. R. Tolkien", "Revised"));
+        }
+        index.remove(2L);
+        index.index(createBook(4L, "Beren and Luthien", "J. R. R. Tolkien", "Elder days"));
+
+        assertThat(index.allocatedDocs()).isEqualTo(3);
+        assertThat(index.search("tolkien", 0, 10)).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    @DisplayName("search() - Given offset and limit, When searching, Then returns requested page")
+    void search_WithOffset_ReturnsRequestedPage() {
+        assertThat(index.search("tolkien hobbit", 1, 1)).hasSize(1);
+        assertThat(index.search("tolkien hobbit", 3, 10)).isEmpty();
+    }
+
+    private Book createBook(Long id, String title, String author, String description) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setDescription(description);
+        return book;
+    }
+}
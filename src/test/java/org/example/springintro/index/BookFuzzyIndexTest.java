@@ -0,0 +1,73 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.springintro.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookFuzzyIndexTest {
+    private BookFuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookFuzzyIndex();
+        index.index(createBook(1L, "The Hobbit", "J. R. R. Tolkien"));
+        index.index(createBook(2L, "The Silmarillion", "J. R. R. Tolkien"));
+        index.index(createBook(3L, "Dune", "Frank Herbert"));
+        index.index(createBook(4L, "Emma", "Jane Austen"));
+    }
+
+    @Test
+    @DisplayName("search() - Given misspelled words, When searching,"
+            + " Then returns close matches and a spelling suggestion")
+    void search_Misspelled_ReturnsMatchesAndSuggestion() {
+        BookFuzzyIndex.Result result = index.search("hobit tolkein", 0, 10);
+
+        assertThat(result.bookIds()).containsExactly(1L);
+        assertThat(result.total()).isEqualTo(1);
+        assertThat(result.suggestion()).isEqualTo("hobbit tolkien");
+    }
+
+    @Test
+    @DisplayName("search() - Given exact and fuzzy matches, When searching,"
+            + " Then ranks exact matches first without a suggestion")
+    void search_ExactMatch_RanksFirstWithoutSuggestion() {
+        index.index(createBook(5L, "Dunes", "Anonymous"));
+
+        BookFuzzyIndex.Result result = index.search("Dune", 0, 10);
+
+        assertThat(result.bookIds()).containsExactly(3L, 5L);
+        assertThat(result.suggestion()).isNull();
+        assertThat(index.search("Dune", 1, 10).bookIds()).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("search() - Given unknown or removed words, When searching,"
+            + " Then returns nothing")
+    void search_UnknownWords_ReturnsEmpty() {
+        index.remove(4L);
+
+        assertThat(index.search("xyzzy", 0, 10).bookIds()).isEmpty();
+        assertThat(index.search("emma", 0, 10).total()).isZero();
+        assertThat(index.search("  ", 0, 10).suggestion()).isNull();
+    }
+
+    @Test
+    @DisplayName("distance() - Given edits and transpositions, When measuring,"
+            + " Then counts them and stops past the bound")
+    void distance_EditsAndTranspositions_AreBounded() {
+        assertThat(BookFuzzyIndex.distance("tolkein", "tolkien", 2)).isEqualTo(1);
+        assertThat(BookFuzzyIndex.distance("hobit", "hobbit", 2)).isEqualTo(1);
+        assertThat(BookFuzzyIndex.distance("dune", "emma", 1)).isEqualTo(2);
+    }
+
+    private Book createBook(Long id, String title, String author) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
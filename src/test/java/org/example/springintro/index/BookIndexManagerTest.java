@@ -0,0 +1,77 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.BookIndexesRebuiltEvent;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.example.springintro.repository.book.BookCategoryIdView;
+import org.example.springintro.repository.book.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+class BookIndexManagerTest {
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CategoryBitmapIndex categoryIndex = new CategoryBitmapIndex();
+    private final BookIndexManager manager =
+            new BookIndexManager(bookRepository, List.of(categoryIndex), eventPublisher);
+
+    @Test
+    @DisplayName("rebuild() - Given changes during the rebuild, When swapping in,"
+            + " Then keeps serving old results and replays the changes")
+    void rebuild_ChangesDuringRebuild_ReplaysThemOnSwap() {
+        manager.onBookSaved(new BookSavedEvent(createBook(9L, 1L)));
+        when(bookRepository.findTop500ByIdGreaterThanOrderByIdAsc(0L)).thenAnswer(invocation -> {
+            manager.onBookSaved(new BookSavedEvent(createBook(2L, 1L)));
+            manager.onBookDeleted(new BookDeletedEvent(1L));
+            assertThat(categoryIndex.match(List.of(1L), false).toArray())
+                    .containsExactly(2, 9);
+            return List.of(createBook(1L), createBook(3L));
+        });
+        when(bookRepository.findTop500ByIdGreaterThanOrderByIdAsc(3L)).thenReturn(List.of());
+        when(bookRepository.findCategoryIdsByBookIds(anyCollection())).thenReturn(List.of(
+                categoryId(1L, 1L), categoryId(3L, 1L)));
+
+        manager.rebuild();
+
+        assertThat(categoryIndex.match(List.of(1L), false).toArray()).containsExactly(2, 3);
+        verify(eventPublisher).publishEvent(new BookIndexesRebuiltEvent());
+    }
+
+    private BookCategoryIdView categoryId(Long bookId, Long categoryId) {
+        return new BookCategoryIdView() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+        };
+    }
+
+    private Book createBook(Long id, Long categoryId) {
+        Book book = createBook(id);
+        Category category = new Category();
+        category.setId(categoryId);
+        book.getCategories().add(category);
+        return book;
+    }
+
+    private Book createBook(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.example.springintro.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class BookPriceIndexTest {
+    private BookPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookPriceIndex();
+        index.index(createBook(1L, "19.99"));
+        index.index(createBook(2L, "5.00"));
+        index.index(createBook(3L, "19.99"));
+        index.index(createBook(4L, "42.50"));
+        index.index(createBook(5L, "10.00"));
+    }
+
+    @Test
+    @DisplayName("match() - Given inclusive price bounds, When matching,"
+            + " Then returns ids priced within them")
+    void match_PriceBounds_ReturnsIdsInRange() {
+        assertThat(index.match(new BigDecimal("10"), new BigDecimal("19.99")).toArray())
+                .containsExactly(1, 3, 5);
+        assertThat(index.match(new BigDecimal("10.001"), null).toArray())
+                .containsExactly(1, 3, 4);
+        assertThat(index.match(null, new BigDecimal("9.999")).toArray()).containsExactly(2);
+        assertThat(index.match(new BigDecimal("50"), null).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("page() - Given offset and direction, When paging,"
+            + " Then returns ids ordered by price and id")
+    void page_OffsetAndDirection_ReturnsPriceOrder() {
+        assertThat(index.page(null, null, null, 0, 3, true)).containsExactly(2L, 5L, 1L);
+        assertThat(index.page(null, null, null, 1, 3, false)).containsExactly(3L, 1L, 5L);
+        assertThat(index.page(new BigDecimal("10"), new BigDecimal("20"), null, 2, 5, true))
+                .containsExactly(3L);
+        assertThat(index.page(null, null, null, 9, 3, true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("page() - Given id filter, When paging, Then skips filtered ids")
+    void page_WithFilter_SkipsFilteredIds() {
+        RoaringBitmap filter = RoaringBitmap.bitmapOf(1, 2, 4);
+
+        assertThat(index.page(null, null, filter, 1, 5, true)).containsExactly(1L, 4L);
+        assertThat(index.page(null, new BigDecimal("20"), filter, 0, 5, false))
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("updatePrices() - Given new prices for indexed and unknown books,"
+            + " When paging, Then reorders only the indexed books")
+    void updatePrices_IndexedAndUnknownBooks_ReordersIndexedBooks() {
+        index.updatePrices(Map.of(4L, new BigDecimal("1.00"), 9L, new BigDecimal("2.00")));
+
+        assertThat(index.page(null, null, null, 0, 3, true)).containsExactly(4L, 2L, 5L);
+        assertThat(index.match(new BigDecimal("2"), new BigDecimal("2")).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("index() - Given changed and removed books, When paging,"
+            + " Then uses the latest prices")
+    void index_ChangedPrice_ReordersBooks() {
+        index.page(null, null, null, 0, 5, true);
+        index.index(createBook(2L, "99.00"));
+        index.remove(4L);
+
+        assertThat(index.page(null, null, null, 0, 5, true))
+                .containsExactly(5L, 1L, 3L, 2L);
+    }
+
+    @Test
+    @DisplayName("page() - Given random writes between reads, When paging,"
+            + " Then keeps every book ordered by price and id")
+    void page_RandomWritesBetweenReads_KeepsPriceOrder() {
+        index.clear();
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int round = 0; round < 200; round++) {
+            long bookId = 1 + random.nextInt(50);
+            if (random.nextInt(4) == 0) {
+                index.remove(bookId);
+                expected.remove(bookId);
+            } else {
+                long cents = random.nextInt(1000);
+                index.index(createBook(bookId, BigDecimal.valueOf(cents, 2).toPlainString()));
+                expected.put(bookId, cents);
+            }
+            if (round % 7 == 0) {
+                assertThat(index.page(null, null, null, 0, 100, true))
+                        .containsExactlyElementsOf(priceOrder(expected));
+            }
+        }
+        assertThat(index.page(null, null, null, 0, 100, true))
+                .containsExactlyElementsOf(priceOrder(expected));
+    }
+
+    private List<Long> priceOrder(Map<Long, Long> prices) {
+        return prices.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Book createBook(Long id, String price) {
+        Book book = new Book();
+        book.setId(id);
+        book.setPrice(new BigDecimal(price));
+        return book;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.example.springintro.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookSimilarityIndexTest {
+    private static final String HOBBIT = "A hobbit leaves the shire with a company of dwarves"
+            + " to win back their mountain home and its treasure from a dragon";
+
+    private BookSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSimilarityIndex();
+        index.indexAll(List.of(
+                createBook(1L, "The Hobbit", "J. R. R. Tolkien", HOBBIT),
+                createBook(2L, "The Hobbit, Annotated", "J. R. R. Tolkien",
+                        HOBBIT + " with notes"),
+                createBook(3L, "Dune", "Frank Herbert",
+                        "A noble family fights over a desert planet that produces spice"),
+                createBook(4L, "Untitled", null, null)));
+    }
+
+    @Test
+    @DisplayName("similar() - Given near-duplicate and unrelated books, When looking up,"
+            + " Then returns only the near duplicate")
+    void similar_NearDuplicate_ReturnsIt() {
+        assertThat(index.similar(1L, 10)).containsExactly(2L);
+        assertThat(index.similar(3L, 10)).isEmpty();
+        assertThat(index.similar(9L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("index() and remove() - Given updated and removed books, When looking up,"
+            + " Then uses the latest content")
+    void indexAndRemove_ChangedBooks_UseLatestContent() {
+        index.index(createBook(3L, "The Hobbit", "J. R. R. Tolkien", HOBBIT + " again"));
+        index.remove(2L);
+
+        assertThat(index.similar(1L, 10)).containsExactly(3L);
+        assertThat(index.similar(2L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("similarity() - Given equal and unrelated signatures, When comparing,"
+            + " Then estimates their Jaccard similarity")
+    void similarity_Signatures_EstimatesJaccard() {
+        int[] hobbit = BookSimilarityIndex.signature(createBook(1L, "The Hobbit", null, HOBBIT));
+        int[] dune = BookSimilarityIndex.signature(createBook(3L, "Dune", null,
+                "A noble family fights over a desert planet that produces spice"));
+
+        assertThat(BookSimilarityIndex.similarity(hobbit, hobbit)).isEqualTo(1.0);
+        assertThat(BookSimilarityIndex.similarity(hobbit, dune)).isLessThan(0.2);
+    }
+
+    private static Book createBook(Long id, String title, String author, String description) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setDescription(description);
+        return book;
+    }
+}
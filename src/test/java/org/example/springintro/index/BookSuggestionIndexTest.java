@@ -0,0 +1,86 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.springintro.dto.book.BookSuggestionDto;
+import org.example.springintro.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookSuggestionIndexTest {
+    private BookSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSuggestionIndex();
+        index.index(createBook(1L, "The Hobbit", "Tolkien"));
+        index.index(createBook(2L, "The Silmarillion", "Tolkien"));
+        index.index(createBook(3L, "The Hound of the Baskervilles", "Doyle"));
+        index.index(createBook(4L, "Tom Sawyer", "Twain"));
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    @DisplayName("suggest() - Given prefix, When suggesting, Then returns popular matches first")
+    void suggest_SharedPrefix_ReturnsMostPopularFirst() {
+        assertThat(index.suggest("T", 3)).extracting(BookSuggestionDto::text)
+                .containsExactly("Tolkien", "The Hobbit", "The Hound of the Baskervilles");
+    }
+
+    @Test
+    @DisplayName("suggest() - Given prefix ending inside an edge, When suggesting,"
+            + " Then returns all matches below the edge")
+    void suggest_PrefixInsideEdge_ReturnsMatches() {
+        assertThat(index.suggest("the ho", 10)).extracting(BookSuggestionDto::text)
+                .containsExactly("The Hobbit", "The Hound of the Baskervilles");
+        assertThat(index.suggest("the hx", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("suggest() - Given removed book, When rebuilt, Then drops its suggestions")
+    void suggest_AfterRemove_DropsSuggestions() {
+        index.remove(4L);
+        index.rebuild();
+
+        assertThat(index.suggest("tw", 10)).isEmpty();
+        assertThat(index.suggest("to", 10)).extracting(BookSuggestionDto::type)
+                .containsExactly(BookSuggestionDto.Type.AUTHOR);
+    }
+
+    @Test
+    @DisplayName("suggest() - Given title equal to an author, When suggesting,"
+            + " Then returns both the title and the author")
+    void suggest_TitleEqualToAuthor_ReturnsBothTypes() {
+        index.index(createBook(5L, "Twain", "Paine"));
+        index.index(createBook(6L, "Tolkien", "Carpenter"));
+        index.rebuild();
+
+        assertThat(index.suggest("twain", 10)).containsExactlyInAnyOrder(
+                new BookSuggestionDto("Twain", BookSuggestionDto.Type.AUTHOR),
+                new BookSuggestionDto("Twain", BookSuggestionDto.Type.TITLE));
+        assertThat(index.suggest("tolkien", 10)).containsExactly(
+                new BookSuggestionDto("Tolkien", BookSuggestionDto.Type.AUTHOR),
+                new BookSuggestionDto("Tolkien", BookSuggestionDto.Type.TITLE));
+
+        index.remove(5L);
+        index.rebuild();
+
+        assertThat(index.suggest("twain", 10)).extracting(BookSuggestionDto::type)
+                .containsExactly(BookSuggestionDto.Type.AUTHOR);
+    }
+
+    private Book createBook(Long id, String title, String author) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
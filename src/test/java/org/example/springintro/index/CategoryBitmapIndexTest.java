@@ -0,0 +1,75 @@
+package org.example.springintro.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.example.springintro.model.Book;
+import org.example.springintro.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class CategoryBitmapIndexTest {
+    private CategoryBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryBitmapIndex();
+        index.index(createBook(1L, 1L, 2L));
+        index.index(createBook(2L, 1L));
+        index.index(createBook(3L, 2L, 3L));
+        index.index(createBook(4L, 1L, 2L));
+    }
+
+    @Test
+    @DisplayName("match() - Given categories, When matching any or all,"
+            + " Then returns union or intersection")
+    void match_AnyAndAll_ReturnsUnionAndIntersection() {
+        assertThat(index.match(List.of(1L, 3L), false).toArray()).containsExactly(1, 2, 3, 4);
+        assertThat(index.match(List.of(1L, 2L), true).toArray()).containsExactly(1, 4);
+        assertThat(index.match(List.of(1L, 9L), true).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("index() - Given book moved between categories, When re-indexing,"
+            + " Then removes it from old categories")
+    void index_ChangedCategories_MovesBook() {
+        index.index(createBook(1L, 3L));
+        index.remove(4L);
+
+        assertThat(index.match(List.of(1L), false).toArray()).containsExactly(2);
+        assertThat(index.match(List.of(3L), false).toArray()).containsExactly(1, 3);
+    }
+
+    @Test
+    @DisplayName("removeCategory() - Given deleted category, When matching,"
+            + " Then category matches nothing")
+    void removeCategory_DeletedCategory_MatchesNothing() {
+        index.removeCategory(2L);
+
+        assertThat(index.match(List.of(2L), false).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("page() - Given offset and direction, When paging, Then returns ids in order")
+    void page_OffsetAndDirection_ReturnsSlice() {
+        RoaringBitmap bookIds = RoaringBitmap.bitmapOf(2, 5, 7, 11, 13);
+
+        assertThat(CategoryBitmapIndex.page(bookIds, 1, 2, true)).containsExactly(5L, 7L);
+        assertThat(CategoryBitmapIndex.page(bookIds, 1, 2, false)).containsExactly(11L, 7L);
+        assertThat(CategoryBitmapIndex.page(bookIds, 4, 3, false)).containsExactly(2L);
+        assertThat(CategoryBitmapIndex.page(bookIds, 5, 3, true)).isEmpty();
+    }
+
+    private Book createBook(Long id, Long... categoryIds) {
+        Book book = new Book();
+        book.setId(id);
+        for (Long categoryId : categoryIds) {
+            Category category = new Category();
+            category.setId(categoryId);
+            book.getCategories().add(category);
+        }
+        return book;
+    }
+}
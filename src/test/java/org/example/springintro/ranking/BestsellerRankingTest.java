@@ -0,0 +1,66 @@
+package org.example.springintro.ranking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.example.springintro.event.BookDeletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class BestsellerRankingTest {
+    private static final Instant NOW = Instant.parse("2024-05-10T12:00:00Z");
+
+    private BestsellerRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new BestsellerRanking(mock(JdbcTemplate.class), Duration.ofDays(7), 7, 2);
+        ranking.record(Map.of(1L, 5, 2L, 1), NOW.minus(Duration.ofDays(10)), NOW);
+        ranking.record(Map.of(2L, 3, 3L, 2), NOW.minus(Duration.ofDays(2)), NOW);
+        ranking.record(Map.of(3L, 2, 4L, 1), NOW, NOW);
+    }
+
+    @Test
+    @DisplayName("top() - Given all-time sales, When ranking, Then orders books by units sold")
+    void top_AllTime_OrdersByUnits() {
+        assertThat(ranking.top(null, false, 3, NOW)).containsExactly(
+                new BestsellerRanking.SalesCount(1L, 5),
+                new BestsellerRanking.SalesCount(2L, 4),
+                new BestsellerRanking.SalesCount(3L, 4));
+        assertThat(ranking.top(RoaringBitmap.bitmapOf(2, 4), false, 5, NOW)).containsExactly(
+                new BestsellerRanking.SalesCount(2L, 4),
+                new BestsellerRanking.SalesCount(4L, 1));
+    }
+
+    @Test
+    @DisplayName("top() - Given sales outside the window, When ranking recent sales,"
+            + " Then counts only sales within the window")
+    void top_Recent_IgnoresExpiredSlots() {
+        assertThat(ranking.top(null, true, 3, NOW)).containsExactly(
+                new BestsellerRanking.SalesCount(3L, 4),
+                new BestsellerRanking.SalesCount(2L, 3),
+                new BestsellerRanking.SalesCount(4L, 1));
+        assertThat(ranking.top(null, true, 3, NOW.plus(Duration.ofDays(6)))).containsExactly(
+                new BestsellerRanking.SalesCount(3L, 2),
+                new BestsellerRanking.SalesCount(4L, 1));
+    }
+
+    @Test
+    @DisplayName("onBookDeleted() - Given a deleted book, When ranking, Then drops its sales")
+    void onBookDeleted_DeletedBook_DropsSales() {
+        ranking.onBookDeleted(new BookDeletedEvent(3L));
+
+        assertThat(ranking.top(null, false, 5, NOW))
+                .extracting(BestsellerRanking.SalesCount::bookId)
+                .containsExactly(1L, 2L, 4L);
+        assertThat(ranking.top(null, true, 5, NOW))
+                .extracting(BestsellerRanking.SalesCount::bookId)
+                .containsExactly(2L, 4L);
+    }
+}
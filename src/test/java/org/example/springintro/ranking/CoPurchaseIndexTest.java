@@ -0,0 +1,54 @@
+package org.example.springintro.ranking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import org.example.springintro.event.BookDeletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class CoPurchaseIndexTest {
+    private CoPurchaseIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CoPurchaseIndex(mock(JdbcTemplate.class), 3, 1);
+        index.record(List.of(1L, 2L, 3L));
+        index.record(List.of(1L, 2L));
+        index.record(List.of(1L, 4L, 4L));
+        index.record(List.of(5L));
+    }
+
+    @Test
+    @DisplayName("top() - Given recorded baskets, When ranking,"
+            + " Then orders books by times bought together")
+    void top_RecordedBaskets_OrdersByCount() {
+        assertThat(index.top(1L, 5)).containsExactly(2L, 3L, 4L);
+        assertThat(index.top(1L, 1)).containsExactly(2L);
+        assertThat(index.top(3L, 5)).containsExactly(1L, 2L);
+        assertThat(index.top(5L, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("record() - Given more neighbours than allowed, When recording,"
+            + " Then prunes to the strongest ones")
+    void record_TooManyNeighbours_KeepsStrongest() {
+        index.record(LongStream.rangeClosed(1, 7).boxed().toList());
+
+        assertThat(index.top(1L, 10)).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("onBookDeleted() - Given a deleted book, When ranking,"
+            + " Then no longer recommends it")
+    void onBookDeleted_DeletedBook_RemovesFromNeighbours() {
+        index.onBookDeleted(new BookDeletedEvent(2L));
+
+        assertThat(index.top(1L, 5)).containsExactly(3L, 4L);
+        assertThat(index.top(2L, 5)).isEmpty();
+    }
+}
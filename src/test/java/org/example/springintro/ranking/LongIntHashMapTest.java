@@ -0,0 +1,52 @@
+package org.example.springintro.ranking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+
+    @Test
+    @DisplayName("addTo() and remove() - Given many keys, When growing and removing,"
+            + " Then keeps every remaining count")
+    void addToAndRemove_ManyKeys_KeepsCounts() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 1; key <= 1000; key++) {
+            map.addTo(key, (int) key);
+            map.addTo(key, 1);
+        }
+        for (long key = 2; key <= 1000; key += 2) {
+            map.remove(key);
+        }
+
+        assertThat(map.size()).isEqualTo(500);
+        assertThat(map.get(999)).isEqualTo(1000);
+        assertThat(map.get(998)).isZero();
+        Map<Long, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).hasSize(500).allSatisfy((key, value) -> {
+            assertThat(key % 2).isEqualTo(1);
+            assertThat(value).isEqualTo(key.intValue() + 1);
+        });
+    }
+
+    @Test
+    @DisplayName("retainTop() - Given more entries than the limit, When pruning,"
+            + " Then keeps the highest counts and smaller keys on ties")
+    void retainTop_MoreEntriesThanLimit_KeepsHighest() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(10, 1);
+        map.addTo(20, 5);
+        map.addTo(30, 3);
+        map.addTo(40, 3);
+
+        map.retainTop(2);
+
+        Map<Long, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).isEqualTo(Map.of(20L, 5, 30L, 3));
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.springintro.ranking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    @DisplayName("add() - Given more keys than counters, When adding,"
+            + " Then keeps the heavy hitters and replaces the smallest counter")
+    void add_MoreKeysThanCapacity_KeepsHeavyHitters() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        for (int i = 0; i < 10; i++) {
+            sketch.add(1L, 1);
+        }
+        sketch.add(2L, 4);
+        sketch.add(3L, 1);
+        sketch.add(4L, 1);
+        sketch.add(5L, 1);
+        Map<Long, Long> counts = new HashMap<>();
+
+        sketch.addTo(counts);
+
+        assertThat(counts).containsEntry(1L, 10L).containsEntry(2L, 4L)
+                .containsEntry(5L, 3L).hasSize(3);
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.springintro.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.exception.EntityNotFoundException;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.mapper.BookMapper;
+import org.example.springintro.model.Book;
+import org.example.springintro.repository.book.BookRepository;
+import org.example.springintro.services.impl.BookCoverServiceImpl;
+import org.example.springintro.services.impl.CoverThumbnailGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+class BookCoverServiceTest {
+    private static final String SHA_256_OF_COVER =
+            "3fa405a8301ace34d11cf44a816080b8f0e49a48fbd048b8aef1543a8c58bdb6";
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookMapper bookMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path directory;
+
+    private BookCoverService bookCoverService;
+
+    @BeforeEach
+    void setUp() {
+        bookCoverService = new BookCoverServiceImpl(bookRepository, bookMapper, eventPublisher,
+                new CoverThumbnailGenerator(1), directory, DataSize.ofKilobytes(64),
+                Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("storeCover() - Given the same image twice, When storing,"
+            + " Then keeps one content-addressed file")
+    public void storeCover_SameImageTwice_StoresOneFile() throws Exception {
+        // Given
+        Book book = new Book();
+        book.setId(1L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+
+        // When
+        bookCoverService.storeCover(1L, MediaType.IMAGE_PNG, stream("cover"));
+        bookCoverService.storeCover(1L, MediaType.IMAGE_PNG, stream("cover"));
+
+        // Then
+        String name = SHA_256_OF_COVER + ".png";
+        assertThat(book.getCoverImage()).isEqualTo(BookCoverService.COVERS_PATH + name);
+        Path stored = directory.resolve("3f").resolve("a4").resolve(name);
+        assertThat(Files.readString(stored)).isEqualTo("cover");
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).containsExactly(stored);
+        }
+        verify(eventPublisher, times(2)).publishEvent(new BookSavedEvent(book));
+        BookCoverService.CoverFile cover = bookCoverService.findCover(name, null);
+        assertThat(cover.tag()).isEqualTo(SHA_256_OF_COVER);
+        assertThat(cover.size()).isEqualTo(5);
+        assertThat(cover.contentType()).isEqualTo(MediaType.IMAGE_PNG);
+    }
+
+    @Test
+    @DisplayName("storeCover() - Given oversized or unsupported image, When storing,"
+            + " Then throws InvalidRequestException and leaves no file")
+    public void storeCover_InvalidImage_ThrowsInvalidRequestException() throws Exception {
+        // Given
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(new Book()));
+
+        // Then
+        assertThatThrownBy(() -> bookCoverService.storeCover(1L, MediaType.IMAGE_JPEG,
+                new ByteArrayInputStream(new byte[64 * 1024 + 1])))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> bookCoverService.storeCover(1L, MediaType.TEXT_PLAIN,
+                stream("text")))
+                .isInstanceOf(InvalidRequestException.class);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("findCover() - Given thumbnail variant, When finding,"
+            + " Then generates and returns the scaled image")
+    public void findCover_Variant_ReturnsThumbnail() throws Exception {
+        // Given
+        Book book = new Book();
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 600, BufferedImage.TYPE_INT_RGB), "png", png);
+        bookCoverService.storeCover(1L, MediaType.IMAGE_PNG,
+                new ByteArrayInputStream(png.toByteArray()));
+        String name = book.getCoverImage().substring(BookCoverService.COVERS_PATH.length());
+
+        // When
+        BookCoverService.CoverFile small = bookCoverService.findCover(name, "small");
+        BookCoverService.CoverFile large = bookCoverService.findCover(name, "LARGE");
+
+        // Then
+        BufferedImage thumbnail = ImageIO.read(small.path().toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(160);
+        assertThat(thumbnail.getHeight()).isEqualTo(240);
+        assertThat(small.tag()).endsWith("-small");
+        assertThat(small.immutable()).isTrue();
+        assertThat(large.tag()).endsWith("-large");
+        assertThat(Files.readAllBytes(large.path())).isEqualTo(png.toByteArray());
+        assertThatThrownBy(() -> bookCoverService.findCover(name, "huge"))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("findCover() - Given undecodable cover, When finding a variant,"
+            + " Then settles every variant on the original once")
+    public void findCover_UndecodableCover_LinksVariantsToOriginal() throws Exception {
+        // Given
+        Book book = new Book();
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+        bookCoverService.storeCover(1L, MediaType.parseMediaType("image/webp"), stream("webp"));
+        String name = book.getCoverImage().substring(BookCoverService.COVERS_PATH.length());
+
+        // When
+        BookCoverService.CoverFile small = bookCoverService.findCover(name, "small");
+
+        // Then
+        assertThat(small.tag()).endsWith("-small");
+        assertThat(small.immutable()).isTrue();
+        assertThat(Files.readString(small.path())).isEqualTo("webp");
+        Path original = bookCoverService.findCover(name, null).path();
+        for (BookCoverService.Variant variant : BookCoverService.Variant.values()) {
+            assertThat(CoverThumbnailGenerator.thumbnailPath(original, variant)).exists();
+        }
+    }
+
+    @Test
+    @DisplayName("findCover() - Given unknown or malformed name, When finding,"
+            + " Then throws EntityNotFoundException")
+    public void findCover_UnknownName_ThrowsEntityNotFoundException() {
+        assertThatThrownBy(() -> bookCoverService.findCover(SHA_256_OF_COVER + ".png", null))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> bookCoverService.findCover("../../etc/passwd", null))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.springintro.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.mapper.BookMapper;
+import org.example.springintro.model.Book;
+import org.example.springintro.repository.book.BookRepository;
+import org.example.springintro.services.impl.BookExportServiceImpl;
+import org.example.springintro.util.BookTestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookMapper bookMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BookExportService bookExportService;
+
+    @BeforeEach
+    void setUp() {
+        bookExportService = new BookExportServiceImpl(bookRepository, bookMapper,
+                objectMapper, entityManager);
+    }
+
+    @Test
+    @DisplayName("exportBooks() - Given streamed books, When exporting,"
+            + " Then writes one JSON line per book and detaches it")
+    public void exportBooks_StreamedBooks_WritesNdjson() throws Exception {
+        // Given
+        Book first = BookTestUtils.createBook(BookTestUtils.createBookRequestDto());
+        first.setId(1L);
+        Book second = BookTestUtils.createBook(BookTestUtils.createBookRequestDto());
+        second.setId(2L);
+        BookDto firstDto = BookTestUtils.createBookDto(first, List.of(1L, 2L));
+        BookDto secondDto = BookTestUtils.createBookDto(second, null);
+        when(bookRepository.streamAllWithCategories()).thenReturn(Stream.of(first, second));
+        when(bookMapper.toDto(first)).thenReturn(firstDto);
+        when(bookMapper.toDto(second)).thenReturn(secondDto);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        bookExportService.exportBooks(output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], BookDto.class)).isEqualTo(firstDto);
+        BookDto exported = objectMapper.readValue(lines[1], BookDto.class);
+        assertThat(exported.getId()).isEqualTo(2L);
+        assertThat(exported.getCategoryIds()).isEmpty();
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.springintro.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.example.springintro.dto.book.BookImportErrorDto;
+import org.example.springintro.dto.book.BookImportReportDto;
+import org.example.springintro.event.BookSavedEvent;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.model.Book;
+import org.example.springintro.services.impl.BookImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookImportService bookImportService;
+
+    private long firstId;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        bookImportService = new BookImportServiceImpl(jdbcTemplate, transactionTemplate,
+                new ObjectMapper(), validator, eventPublisher, 500);
+    }
+
+    @Test
+    @DisplayName("importBooks() - Given CSV with invalid rows, When importing,"
+            + " Then inserts valid rows and reports the rest")
+    public void importBooks_CsvWithInvalidRows_ReportsErrors() throws Exception {
+        // Given
+        String csv = """
+                title,author,isbn,price,description,coverImage,categoryIds
+                "Dune, Part One",Frank Herbert,111,10.50,Desert planet,dune.jpg,1;2
+                Empty,,222,5,No author,empty.jpg,1
+                Lost,Nobody,333,7,Unknown category,lost.jpg,9
+                """;
+        stubInsert(10L);
+
+        // When
+        BookImportReportDto report = bookImportService.importBooks(stream(csv),
+                BookImportService.CSV);
+
+        // Then
+        assertThat(report.getProcessed()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).containsExactly(
+                new BookImportErrorDto(3, "222", "author must not be blank"),
+                new BookImportErrorDto(4, "333", "Unknown category ids: [9]"));
+        ArgumentCaptor<BookSavedEvent> event = ArgumentCaptor.forClass(BookSavedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        Book book = event.getValue().book();
+        assertThat(book.getId()).isEqualTo(10L);
+        assertThat(book.getTitle()).isEqualTo("Dune, Part One");
+        assertThat(book.getCategories()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("importBooks() - Given NDJSON with an existing ISBN, When importing,"
+            + " Then skips the duplicate")
+    public void importBooks_NdjsonDuplicateIsbn_SkipsRow() {
+        // Given
+        String ndjson = """
+                {"title":"Dune","author":"Frank Herbert","isbn":"111","price":10,\
+                "description":"Desert planet","coverImage":"dune.jpg","categoryIds":[1]}
+                not json
+                """;
+        stubTransaction(10L);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry '111'"));
+
+        // When
+        BookImportReportDto report = bookImportService.importBooks(stream(ndjson),
+                BookImportService.NDJSON);
+
+        // Then
+        assertThat(report.getProcessed()).isEqualTo(2);
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getSkipped()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BookImportErrorDto::line)
+                .containsExactly(2L, 1L);
+        assertThat(report.getErrors().get(0).message()).startsWith("Malformed row");
+        assertThat(report.getErrors().get(1).message()).isEqualTo("Duplicate ISBN");
+        verifyNoInteractions(eventPublisher);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("importBooks() - Given a title longer than its column, When importing,"
+            + " Then reports the row instead of truncating it")
+    public void importBooks_OverLengthTitle_ReportsRow() {
+        // Given
+        String ndjson = """
+                {"title":"%s","author":"Frank Herbert","isbn":"111","price":10,\
+                "description":"Desert planet","coverImage":"dune.jpg","categoryIds":[1]}
+                """.formatted("a".repeat(256));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(1L));
+
+        // When
+        BookImportReportDto report = bookImportService.importBooks(stream(ndjson),
+                BookImportService.NDJSON);
+
+        // Then
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly(
+                new BookImportErrorDto(1, "111", "title size must be between 0 and 255"));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("importBooks() - Given a batch with a stored ISBN, When importing,"
+            + " Then re-runs it row by row and skips only the duplicate")
+    public void importBooks_BatchWithStoredIsbn_SkipsOnlyDuplicate() {
+        // Given
+        stubTransaction(10L);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry '111'"))
+                .thenThrow(new DuplicateKeyException("Duplicate entry '111'"))
+                .thenAnswer(this::generateKeys);
+        String csv = """
+                title,author,isbn,price,description,coverImage,categoryIds
+                Dune,Frank Herbert,111,10.50,Desert planet,dune.jpg,1
+                Emma,Jane Austen,222,7,Matchmaking,emma.jpg,2
+                """;
+
+        // When
+        BookImportReportDto report = bookImportService.importBooks(stream(csv),
+                BookImportService.CSV);
+
+        // Then
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getSkipped()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly(
+                new BookImportErrorDto(2, "111", "Duplicate ISBN"));
+        ArgumentCaptor<BookSavedEvent> event = ArgumentCaptor.forClass(BookSavedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().book().getId()).isEqualTo(10L);
+        assertThat(event.getValue().book().getIsbn()).isEqualTo("222");
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    @DisplayName("importBooks() - Given unsupported format, When importing,"
+            + " Then throws InvalidRequestException")
+    public void importBooks_UnsupportedFormat_ThrowsException() {
+        assertThatThrownBy(() -> bookImportService.importBooks(stream(""),
+                MediaType.APPLICATION_XML))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private void stubInsert(long firstId) {
+        stubTransaction(firstId);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(this::generateKeys);
+    }
+
+    private void stubTransaction(long firstId) {
+        this.firstId = firstId;
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(1L, 2L));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private int[] generateKeys(InvocationOnMock invocation) {
+        BatchPreparedStatementSetter setter = invocation.getArgument(1);
+        KeyHolder keyHolder = invocation.getArgument(2);
+        for (int i = 0; i < setter.getBatchSize(); i++) {
+            keyHolder.getKeyList().add(Map.of("GENERATED_KEY", firstId + i));
+        }
+        return new int[setter.getBatchSize()];
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.springintro.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.example.springintro.dto.book.BookImportErrorDto;
+import org.example.springintro.dto.book.BookPriceUpdateReportDto;
+import org.example.springintro.event.BookPricesChangedEvent;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.services.impl.BookPriceUpdateServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BookPriceUpdateServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    @DisplayName("updatePrices() - Given CSV rows keyed by id and isbn, When updating,"
+            + " Then applies found prices in one statement per batch and reports the rest")
+    public void updatePrices_CsvRows_UpdatesPerBatch() throws Exception {
+        // Given
+        String csv = """
+                id,isbn,price
+                1,,10.50
+                ,222,7
+                3,,-1
+                ,999,4
+                1,,11
+                """;
+        stubExistingBooks(Map.of(1L, "111", 2L, "222"));
+
+        // When
+        BookPriceUpdateReportDto report = service(2).updatePrices(stream(csv),
+                BookImportService.CSV);
+
+        // Then
+        assertThat(report.getProcessed()).isEqualTo(5);
+        assertThat(report.getUpdated()).isEqualTo(3);
+        assertThat(report.getNotFound()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly(
+                new BookImportErrorDto(4, null, "price must be greater than or equal to 0"),
+                new BookImportErrorDto(5, "999", "Book not found"));
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        ArgumentCaptor<BookPricesChangedEvent> events =
+                ArgumentCaptor.forClass(BookPricesChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues().get(0).prices()).isEqualTo(
+                Map.of(1L, new BigDecimal("10.50"), 2L, new BigDecimal("7")));
+        assertThat(events.getAllValues().get(1).prices()).isEqualTo(
+                Map.of(1L, new BigDecimal("11")));
+    }
+
+    @Test
+    @DisplayName("updatePrices() - Given NDJSON rows for unknown books, When updating,"
+            + " Then skips the update and publishes nothing")
+    public void updatePrices_NdjsonUnknownBooks_ReportsNotFound() throws Exception {
+        // Given
+        String ndjson = """
+                {"id":5,"price":10}
+                {"price":3}
+                """;
+        stubExistingBooks(Map.of());
+
+        // When
+        BookPriceUpdateReportDto report = service(500).updatePrices(stream(ndjson),
+                BookImportService.NDJSON);
+
+        // Then
+        assertThat(report.getNotFound()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BookImportErrorDto::message)
+                .containsExactly("id or isbn is required", "Book not found: id 5");
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("updatePrices() - Given CSV without a key column, When updating,"
+            + " Then throws InvalidRequestException")
+    public void updatePrices_CsvWithoutKeyColumn_ThrowsException() {
+        assertThatThrownBy(() -> service(500).updatePrices(stream("title,price\n"),
+                BookImportService.CSV))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private BookPriceUpdateService service(int batchSize) {
+        return new BookPriceUpdateServiceImpl(jdbcTemplate, namedParameterJdbcTemplate,
+                transactionTemplate, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                eventPublisher, batchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubExistingBooks(Map<Long, String> books) throws Exception {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ResultSet resultSet = mock(ResultSet.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Map.Entry<Long, String> book : books.entrySet()) {
+                when(resultSet.getLong("id")).thenReturn(book.getKey());
+                when(resultSet.getString("isbn")).thenReturn(book.getValue());
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(namedParameterJdbcTemplate).query(anyString(), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,9 +2,15 @@ package org.example.springintro.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -13,14 +19,41 @@ import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import org.example.springintro.cache.BookCache;
+import org.example.springintro.cache.CatalogGeneration;
+import org.example.springintro.cache.CatalogStatistics;
+import org.example.springintro.cache.SearchResultCache;
+import org.example.springintro.dto.book.BestsellerDto;
+import org.example.springintro.dto.book.BookBatchDto;
+import org.example.springintro.dto.book.BookCursorPageDto;
 import org.example.springintro.dto.book.BookDto;
 import org.example.springintro.dto.book.BookDtoWithoutCategoryIds;
+import org.example.springintro.dto.book.BookFuzzySearchResultDto;
 import org.example.springintro.dto.book.BookSearchParameters;
+import org.example.springintro.dto.book.BookSearchResultDto;
+import org.example.springintro.dto.book.BookSliceDto;
 import org.example.springintro.dto.book.CreateBookRequestDto;
+import org.example.springintro.dto.book.FacetCountDto;
+import org.example.springintro.event.BookDeletedEvent;
+import org.example.springintro.event.BookSavedEvent;
 import org.example.springintro.exception.EntityNotFoundException;
+import org.example.springintro.exception.InvalidRequestException;
+import org.example.springintro.index.BookFacetIndex;
+import org.example.springintro.index.BookFullTextIndex;
+import org.example.springintro.index.BookFuzzyIndex;
+import org.example.springintro.index.BookPriceIndex;
+import org.example.springintro.index.BookSimilarityIndex;
+import org.example.springintro.index.CategoryBitmapIndex;
 import org.example.springintro.mapper.BookMapper;
 import org.example.springintro.model.Book;
 import org.example.springintro.model.Category;
+import org.example.springintro.ranking.BestsellerRanking;
+import org.example.springintro.ranking.CoPurchaseIndex;
+import org.example.springintro.repository.OffsetPageRequest;
+import org.example.springintro.repository.book.BookCategoryIdView;
+import org.example.springintro.repository.book.BookCursor;
 import org.example.springintro.repository.book.BookRepository;
 import org.example.springintro.repository.book.BookSpecificationBuilder;
 import org.example.springintro.repository.categoty.CategoryRepository;
@@ -31,11 +64,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +87,43 @@ class BookServiceTest {
     @Mock
     private BookSpecificationBuilder bookSpecificationBuilder;
 
+    @Mock
+    private BookFullTextIndex bookFullTextIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BookCache bookCache = new BookCache(100);
+
+    @Spy
+    private CategoryBitmapIndex categoryBitmapIndex = new CategoryBitmapIndex();
+
+    @Spy
+    private BookFacetIndex bookFacetIndex = new BookFacetIndex();
+
+    @Spy
+    private BookPriceIndex bookPriceIndex = new BookPriceIndex();
+
+    @Mock
+    private CatalogStatistics catalogStatistics;
+
+    @Spy
+    private BookFuzzyIndex bookFuzzyIndex = new BookFuzzyIndex();
+
+    @Spy
+    private BookSimilarityIndex bookSimilarityIndex = new BookSimilarityIndex();
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(
+            readyCatalogGeneration(), 100);
+
+    @Mock
+    private BestsellerRanking bestsellerRanking;
+
+    @Mock
+    private CoPurchaseIndex coPurchaseIndex;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -100,23 +171,129 @@ class BookServiceTest {
             + " When finding all books, Then returns list of BookDtos")
     public void findAll_ReturnsListOfBookDtos() {
         // Given
-        Pageable pageable = mock(Pageable.class);
-        Page<Book> page = mock(Page.class);
-
-        Book book = new Book();
+        Pageable pageable = PageRequest.of(0, 10);
         BookDto bookDto = new BookDto();
+        bookDto.setId(1L);
 
         // When
-        when(bookRepository.findAll(pageable)).thenReturn(page);
-        when(page.stream()).thenReturn(List.of(book).stream());
-        when(bookMapper.toDto(book)).thenReturn(bookDto);
+        when(bookRepository.findDtos(any(Specification.class), eq(pageable)))
+                .thenReturn(List.of(bookDto));
 
         List<BookDto> result = bookService.findAll(pageable);
 
         // Then
         assertThat(result).hasSize(1).contains(bookDto);
-        verify(bookRepository, times(1)).findAll(pageable);
-        verify(bookMapper, times(1)).toDto(book);
+        assertThat(bookDto.getCategoryIds()).isEmpty();
+        verify(bookRepository, times(1)).findDtos(any(Specification.class), eq(pageable));
+        verify(bookRepository, times(1)).findCategoryIdsByBookIds(List.of(1L));
+        verifyNoMoreInteractions(bookRepository, bookMapper);
+    }
+
+    @Test
+    @DisplayName("findSlice() - Given more books than the page,"
+            + " When finding a slice, Then reads one extra row instead of counting")
+    public void findSlice_MoreBooks_ReturnsSliceWithNext() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 2);
+        List<BookDto> books = List.of(
+                BookTestUtils.createBookDto(3L, "C", null, null, null, null, null, null),
+                BookTestUtils.createBookDto(4L, "D", null, null, null, null, null, null),
+                BookTestUtils.createBookDto(5L, "E", null, null, null, null, null, null));
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class),
+                eq(new OffsetPageRequest(2, 3, Sort.unsorted())))).thenReturn(books);
+        when(catalogStatistics.approximateBookCount()).thenReturn(42L);
+
+        BookSliceDto result = bookService.findSlice(pageable);
+
+        // Then
+        assertThat(result.getContent()).extracting(BookDto::getId).containsExactly(3L, 4L);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getPage()).isEqualTo(1);
+        assertThat(result.getApproximateTotal()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("findAllByIds() - Given cached, stored and missing ids,"
+            + " When finding, Then loads uncached ids in one query in request order")
+    public void findAllByIds_MixedIds_ReturnsRequestOrderWithMisses() {
+        // Given
+        BookDto cached = BookTestUtils.createBookDto(
+                1L, "A", null, null, null, null, null, null);
+        BookDto stored = BookTestUtils.createBookDto(
+                2L, "B", null, null, null, null, null, null);
+        bookCache.get(1L, id -> cached);
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(2)))
+                .thenReturn(List.of(stored));
+
+        BookBatchDto result = bookService.findAllByIds(List.of(3L, 2L, 1L, 2L));
+
+        // Then
+        assertThat(result.getContent()).containsExactly(stored, cached);
+        assertThat(result.getMissingIds()).containsExactly(3L);
+        verify(bookRepository, times(1)).findCategoryIdsByBookIds(List.of(2L));
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("findAllByIds() - Given too many ids, When finding,"
+            + " Then throws InvalidRequestException")
+    public void findAllByIds_TooManyIds_ThrowsInvalidRequestException() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThatThrownBy(() -> bookService.findAllByIds(ids))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("findBestsellers() - Given ranked ids of cached and deleted books,"
+            + " When finding, Then returns the cached books with their sales in rank order")
+    public void findBestsellers_RankedIds_ReturnsBooksInRankOrder() {
+        // Given
+        BookDto first = BookTestUtils.createBookDto(
+                5L, "A", null, null, null, null, null, null);
+        bookCache.get(5L, id -> first);
+
+        // When
+        when(bestsellerRanking.top(null, true, 2)).thenReturn(List.of(
+                new BestsellerRanking.SalesCount(6L, 9),
+                new BestsellerRanking.SalesCount(5L, 4)));
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of());
+
+        List<BestsellerDto> result = bookService.findBestsellers(null, true, 2);
+
+        // Then
+        assertThat(result).containsExactly(new BestsellerDto(first, 4));
+        assertThatThrownBy(() -> bookService.findBestsellers(null, false, 0))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("findAlsoBought() - Given co-purchased ids, When finding,"
+            + " Then returns the books that still exist in index order")
+    public void findAlsoBought_CoPurchasedIds_ReturnsExistingBooks() {
+        // Given
+        BookDto first = BookTestUtils.createBookDto(
+                3L, "A", null, null, null, null, null, null);
+        BookDto second = BookTestUtils.createBookDto(
+                2L, "B", null, null, null, null, null, null);
+        bookCache.get(3L, id -> first);
+        bookCache.get(2L, id -> second);
+
+        // When
+        when(coPurchaseIndex.top(1L, 3)).thenReturn(List.of(3L, 9L, 2L));
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of());
+
+        List<BookDto> result = bookService.findAlsoBought(1L, 3);
+
+        // Then
+        assertThat(result).containsExactly(first, second);
     }
 
     @Test
@@ -151,6 +328,29 @@ class BookServiceTest {
         verify(bookMapper, times(1)).toDto(book);
     }
 
+    @Test
+    @DisplayName("findById() - Given cached book, When finding it again,"
+            + " Then skips the repository until the book is saved")
+    public void findById_CachedBook_ServedFromCache() {
+        // Given
+        Long id = 1L;
+        Book book = BookTestUtils.createBook(BookTestUtils.createBookRequestDto());
+        book.setId(id);
+        BookDto bookDto = BookTestUtils.createBookDto(book, List.of());
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+
+        // When
+        bookService.findById(id);
+        BookDto cached = bookService.findById(id);
+        bookCache.onBookSaved(new BookSavedEvent(book));
+        bookService.findById(id);
+
+        // Then
+        assertThat(cached).isEqualTo(bookDto);
+        verify(bookRepository, times(2)).findById(id);
+    }
+
     @Test
     @DisplayName("findById() - Given invalid ID,"
             + " When finding book, Then throws EntityNotFoundException")
@@ -220,6 +420,7 @@ class BookServiceTest {
 
         // Then
         verify(bookRepository, times(1)).deleteById(id);
+        verify(eventPublisher, times(1)).publishEvent(new BookDeletedEvent(id));
     }
 
     @Test
@@ -229,28 +430,182 @@ class BookServiceTest {
         // Given
         String[] titles = {"Test Title 1", "Test Title 2"};
         String[] authors = {"Author 1", "Author 2"};
-        BookSearchParameters params = new BookSearchParameters(titles, authors);
+        BookSearchParameters params = new BookSearchParameters(titles, authors, null, null, null,
+                null, null);
 
         Pageable pageable = PageRequest.of(0, 10);
         Specification<Book> spec = mock(Specification.class);
 
-        Book book = new Book();
         BookDto bookDto = new BookDto();
-
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
+        bookDto.setId(1L);
+        BookCategoryIdView categoryId = mock(BookCategoryIdView.class);
 
         // When
         when(bookSpecificationBuilder.build(params)).thenReturn(spec);
-        when(bookRepository.findAll(spec, pageable)).thenReturn(bookPage);
-        when(bookMapper.toDto(book)).thenReturn(bookDto);
+        when(bookRepository.findDtos(spec, pageable)).thenReturn(List.of(bookDto));
+        when(categoryId.getBookId()).thenReturn(1L);
+        when(categoryId.getCategoryId()).thenReturn(5L);
+        when(bookRepository.findCategoryIdsByBookIds(List.of(1L)))
+                .thenReturn(List.of(categoryId));
 
         List<BookDto> result = bookService.search(params, pageable);
 
         // Then
-        assertThat(result).contains(bookDto);
+        assertThat(result).containsExactly(bookDto);
+        assertThat(bookDto.getCategoryIds()).containsExactly(5L);
         verify(bookSpecificationBuilder, times(1)).build(params);
-        verify(bookRepository, times(1)).findAll(spec, pageable);
-        verify(bookMapper, times(1)).toDto(book);
+        verify(bookRepository, times(1)).findDtos(spec, pageable);
+        verify(bookRepository, times(1)).findCategoryIdsByBookIds(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("search() - Given repeated search with differently ordered titles,"
+            + " When searching again, Then loads cached ids by primary key")
+    public void search_RepeatedSearch_UsesCachedIds() {
+        // Given
+        BookSearchParameters params = new BookSearchParameters(new String[]{"Dune", "Emma"},
+                null, null, null, null, null, null);
+        Pageable pageable = PageRequest.of(0, 10);
+        Specification<Book> spec = mock(Specification.class);
+        BookDto bookDto = BookTestUtils.createBookDto(
+                1L, "Dune", null, null, null, null, null, null);
+
+        // When
+        when(bookSpecificationBuilder.build(params)).thenReturn(spec);
+        when(bookRepository.findDtos(spec, pageable)).thenReturn(List.of(bookDto));
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(bookDto));
+
+        bookService.search(params, pageable);
+        BookSearchParameters repeated = new BookSearchParameters(
+                new String[]{"emma ", "DUNE", "Dune"}, null, null, null, null, null, null);
+        List<BookDto> result = bookService.search(repeated, pageable);
+
+        // Then
+        assertThat(result).containsExactly(bookDto);
+        verify(bookSpecificationBuilder, times(1)).build(any(BookSearchParameters.class));
+        verify(bookRepository, times(1)).findDtos(spec, pageable);
+    }
+
+    @Test
+    @DisplayName("search() - Given repeated search of cached books,"
+            + " When searching again, Then serves them from the book cache in result order")
+    public void search_RepeatedSearchOfCachedBooks_SkipsRepository() {
+        // Given
+        BookSearchParameters params = new BookSearchParameters(new String[]{"Dune", "Emma"},
+                null, null, null, null, null, null);
+        BookDto dune = BookTestUtils.createBookDto(
+                1L, "Dune", null, null, null, null, null, null);
+        BookDto emma = BookTestUtils.createBookDto(
+                2L, "Emma", null, null, null, null, null, null);
+        bookCache.get(1L, id -> dune);
+        bookCache.get(2L, id -> emma);
+        Pageable pageable = PageRequest.of(0, 10);
+        Specification<Book> spec = mock(Specification.class);
+
+        // When
+        when(bookSpecificationBuilder.build(params)).thenReturn(spec);
+        when(bookRepository.findDtos(spec, pageable)).thenReturn(List.of(emma, dune));
+
+        bookService.search(params, pageable);
+        List<BookDto> result = bookService.search(params, pageable);
+
+        // Then
+        assertThat(result).containsExactly(emma, dune);
+        verify(bookRepository, times(1)).findDtos(spec, pageable);
+        verify(bookRepository, never()).findDtos(any(Specification.class), eq(Sort.unsorted()),
+                anyInt());
+        verify(bookRepository, times(1)).findCategoryIdsByBookIds(List.of(2L, 1L));
+    }
+
+    @Test
+    @DisplayName("search() - Given full-text query,"
+            + " When searching, Then returns BookDtos in relevance order")
+    public void search_FullTextQuery_ReturnsBookDtosInRankOrder() {
+        // Given
+        BookDto firstDto = new BookDto();
+        firstDto.setId(1L);
+        BookDto secondDto = new BookDto();
+        secondDto.setId(2L);
+        BookSearchParameters params = new BookSearchParameters(null, null, "hobbit", null, null,
+                null, null);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // When
+        when(bookFullTextIndex.search("hobbit", 0, 10)).thenReturn(List.of(2L, 1L));
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(2)))
+                .thenReturn(List.of(firstDto, secondDto));
+
+        List<BookDto> result = bookService.search(params, pageable);
+
+        // Then
+        assertThat(result).containsExactly(secondDto, firstDto);
+        verifyNoMoreInteractions(bookSpecificationBuilder);
+    }
+
+    @Test
+    @DisplayName("search() - Given full-text query and author, When searching,"
+            + " Then returns only books by that author")
+    public void search_FullTextQueryWithAuthor_FiltersByAuthor() {
+        // Given
+        for (Book book : List.of(createIndexedBook(1L, 1L), createIndexedBook(2L, 1L))) {
+            book.setAuthor(book.getId() == 2L ? "Orwell" : "Tolkien");
+            bookFacetIndex.index(book);
+        }
+        BookDto secondDto = new BookDto();
+        secondDto.setId(2L);
+        BookSearchParameters params = new BookSearchParameters(null, new String[]{"Orwell"},
+                "hobbit", null, null, null, null);
+
+        // When
+        when(bookFullTextIndex.search(eq("hobbit"), any(LongPredicate.class), eq(0L), eq(10)))
+                .thenAnswer(invocation -> LongStream.of(1L, 2L)
+                        .filter(invocation.<LongPredicate>getArgument(1))
+                        .boxed()
+                        .toList());
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(secondDto));
+
+        List<BookDto> result = bookService.search(params, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result).containsExactly(secondDto);
+    }
+
+    @Test
+    @DisplayName("search() - Given full-text query, When scrolling,"
+            + " Then throws InvalidRequestException")
+    public void search_ScrollWithQuery_ThrowsInvalidRequestException() {
+        BookSearchParameters params = new BookSearchParameters(null, null, "hobbit", null, null,
+                null, null);
+
+        assertThatThrownBy(() -> bookService.search(params, (String) null, PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("searchFuzzy() - Given misspelled title,"
+            + " When searching, Then returns close books with a suggestion")
+    public void searchFuzzy_MisspelledTitle_ReturnsBooksAndSuggestion() {
+        // Given
+        Book book = createIndexedBook(1L);
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+        bookFuzzyIndex.index(book);
+        BookDto bookDto = BookTestUtils.createBookDto(
+                1L, "Dune", null, null, null, null, null, null);
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(bookDto));
+
+        BookFuzzySearchResultDto result = bookService.searchFuzzy("dnue", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result.getContent()).containsExactly(bookDto);
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getDidYouMean()).isEqualTo("dune");
     }
 
     @Test
@@ -269,20 +624,266 @@ class BookServiceTest {
                 "Test description",
                 "test-image.jpg"
         );
-        Book book = BookTestUtils.createBook(
-                BookTestUtils.createBookRequestDto(),
-                BookTestUtils.createCategory(1L, "Test Category")
-        );
+
+        categoryBitmapIndex.index(createIndexedBook(1L, categoryId));
 
         // When
-        when(bookRepository.findAllByCategories_Id(categoryId)).thenReturn(List.of(book));
-        when(bookMapper.toDtoWithoutCategories(book)).thenReturn(bookDtoWithoutCategoryIds);
+        when(bookRepository.findDtosByIdIn(List.of(1L)))
+                .thenReturn(List.of(bookDtoWithoutCategoryIds));
 
         List<BookDtoWithoutCategoryIds> result = bookService.findBooksByCategoryId(categoryId);
 
         // Then
         assertThat(result).contains(bookDtoWithoutCategoryIds);
-        verify(bookRepository, times(1)).findAllByCategories_Id(categoryId);
-        verify(bookMapper, times(1)).toDtoWithoutCategories(book);
+        verify(bookRepository, times(1)).findDtosByIdIn(List.of(1L));
+        verifyNoMoreInteractions(bookRepository, bookMapper);
+    }
+
+    @Test
+    @DisplayName("findBooksByCategoryId() - Given category larger than one query,"
+            + " When finding books, Then loads them in chunks of 1000 ids")
+    void findBooksByCategoryId_LargeCategory_LoadsInChunks() {
+        // Given
+        for (long bookId = 1; bookId <= 2500; bookId++) {
+            categoryBitmapIndex.index(createIndexedBook(bookId, 3L));
+        }
+        when(bookRepository.findDtosByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(bookId -> BookTestUtils.createBookDtoWithoutCategoryIds(bookId,
+                            "Title", "Author", "isbn-" + bookId, BigDecimal.ONE, null, null))
+                    .toList();
+        });
+
+        // When
+        List<BookDtoWithoutCategoryIds> result = bookService.findBooksByCategoryId(3L);
+
+        // Then
+        assertThat(result).extracting(BookDtoWithoutCategoryIds::getId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 2500).boxed().toList());
+        verify(bookRepository).findDtosByIdIn(argThat(ids -> ids.size() == 1000
+                && ids.contains(1L)));
+        verify(bookRepository).findDtosByIdIn(argThat(ids -> ids.size() == 1000
+                && ids.contains(1001L)));
+        verify(bookRepository).findDtosByIdIn(argThat(ids -> ids.size() == 500
+                && ids.contains(2500L)));
+    }
+
+    @Test
+    @DisplayName("findBooksByCategoryId() - Given empty category,"
+            + " When finding books, Then skips the repository")
+    public void findBooksByCategoryId_EmptyCategory_ReturnsEmptyList() {
+        // When
+        List<BookDtoWithoutCategoryIds> result = bookService.findBooksByCategoryId(7L);
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("search() - Given categories to match all,"
+            + " When searching, Then pages the bitmap intersection by id")
+    public void search_AllCategories_ReturnsIntersectionPage() {
+        // Given
+        categoryBitmapIndex.index(createIndexedBook(1L, 1L, 2L));
+        categoryBitmapIndex.index(createIndexedBook(2L, 1L));
+        categoryBitmapIndex.index(createIndexedBook(3L, 1L, 2L));
+        categoryBitmapIndex.index(createIndexedBook(4L, 1L, 2L, 3L));
+        BookSearchParameters params = new BookSearchParameters(null, null, null,
+                new Long[]{1L, 2L}, BookSearchParameters.CategoryMatch.ALL, null, null);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        BookDto third = BookTestUtils.createBookDto(
+                3L, "C", null, null, null, null, null, null);
+        BookDto fourth = BookTestUtils.createBookDto(
+                4L, "D", null, null, null, null, null, null);
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(2)))
+                .thenReturn(List.of(third, fourth));
+
+        List<BookDto> result = bookService.search(params, pageable);
+
+        // Then
+        assertThat(result).containsExactly(fourth, third);
+        verify(bookRepository, times(1)).findCategoryIdsByBookIds(List.of(4L, 3L));
+        verifyNoMoreInteractions(bookSpecificationBuilder);
+    }
+
+    @Test
+    @DisplayName("search() - Given facets and categories, When searching,"
+            + " Then counts facets over the whole match set")
+    public void search_WithFacets_CountsWholeMatchSet() {
+        // Given
+        for (Book book : List.of(
+                createIndexedBook(1L, 1L, 2L),
+                createIndexedBook(2L, 1L),
+                createIndexedBook(3L, 2L))) {
+            book.setAuthor(book.getId() == 2L ? "Orwell" : "Tolkien");
+            book.setPrice(BigDecimal.valueOf(book.getId() * 20));
+            categoryBitmapIndex.index(book);
+            bookFacetIndex.index(book);
+        }
+        BookSearchParameters params = new BookSearchParameters(null, null, null,
+                new Long[]{1L}, null, null, null);
+        Pageable pageable = PageRequest.of(0, 1);
+        BookDto first = BookTestUtils.createBookDto(
+                1L, "A", null, null, null, null, null, null);
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(first));
+
+        BookSearchResultDto result = bookService.search(params, List.of("author", "price"),
+                pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(first);
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getFacets().getCategories()).isNull();
+        assertThat(result.getFacets().getAuthors()).containsExactly(
+                new FacetCountDto("Orwell", 1), new FacetCountDto("Tolkien", 1));
+        assertThat(result.getFacets().getPrices()).extracting(FacetCountDto::count)
+                .containsExactly(0L, 1L, 1L, 0L, 0L);
+    }
+
+    @Test
+    @DisplayName("search() - Given facets and a repeated author, When searching,"
+            + " Then counts the author once")
+    public void search_WithFacetsRepeatedAuthor_CountsMatches() {
+        // Given
+        for (Book book : List.of(createIndexedBook(1L, 1L), createIndexedBook(2L, 1L))) {
+            book.setAuthor(book.getId() == 2L ? "Orwell" : "Tolkien");
+            bookFacetIndex.index(book);
+        }
+        BookSearchParameters params = new BookSearchParameters(null,
+                new String[]{"Orwell", "Orwell"}, null, null, null, null, null);
+
+        // When
+        BookSearchResultDto result = bookService.search(params, List.of("author"),
+                PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getFacets().getAuthors()).containsExactly(
+                new FacetCountDto("Orwell", 1));
+    }
+
+    @Test
+    @DisplayName("search() - Given unknown facet, When searching,"
+            + " Then throws InvalidRequestException")
+    public void search_UnknownFacet_ThrowsInvalidRequestException() {
+        BookSearchParameters params = new BookSearchParameters(null, null, null, null, null,
+                null, null);
+
+        assertThatThrownBy(() -> bookService.search(params, List.of("publisher"),
+                PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Unknown facet: publisher");
+    }
+
+    @Test
+    @DisplayName("search() - Given price range and category sorted by price,"
+            + " When searching, Then pages the price index without a query")
+    public void search_PriceRangeSortedByPrice_ReturnsPricePage() {
+        // Given
+        for (Book book : List.of(
+                createIndexedBook(1L, 1L),
+                createIndexedBook(2L, 1L),
+                createIndexedBook(3L, 2L),
+                createIndexedBook(4L, 1L),
+                createIndexedBook(5L, 1L))) {
+            book.setPrice(BigDecimal.valueOf(50 - book.getId() * 5));
+            categoryBitmapIndex.index(book);
+            bookPriceIndex.index(book);
+        }
+        BookSearchParameters params = new BookSearchParameters(null, null, null,
+                new Long[]{1L}, null, BigDecimal.valueOf(30), BigDecimal.valueOf(45));
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price"));
+        BookDto first = BookTestUtils.createBookDto(
+                1L, "A", null, null, null, null, null, null);
+        BookDto second = BookTestUtils.createBookDto(
+                2L, "B", null, null, null, null, null, null);
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class), eq(Sort.unsorted()), eq(2)))
+                .thenReturn(List.of(second, first));
+
+        List<BookDto> result = bookService.search(params, pageable);
+
+        // Then
+        assertThat(result).containsExactly(first, second);
+        verify(bookRepository, times(1)).findCategoryIdsByBookIds(List.of(1L, 2L));
+        verifyNoMoreInteractions(bookSpecificationBuilder);
+    }
+
+    @Test
+    @DisplayName("search() - Given minPrice above maxPrice, When searching,"
+            + " Then throws InvalidRequestException")
+    public void search_InvertedPriceRange_ThrowsInvalidRequestException() {
+        BookSearchParameters params = new BookSearchParameters(null, null, null, null, null,
+                BigDecimal.TEN, BigDecimal.ONE);
+
+        assertThatThrownBy(() -> bookService.search(params, PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("minPrice must not be greater than maxPrice");
+    }
+
+    @Test
+    @DisplayName("findAll() - Given cursor page size,"
+            + " When more books exist, Then returns page with next cursor")
+    public void findAll_WithCursor_ReturnsPageWithNextCursor() {
+        // Given
+        BookDto first = BookTestUtils.createBookDto(
+                1L, "A", null, null, null, null, null, null);
+        BookDto second = BookTestUtils.createBookDto(
+                2L, "B", null, null, null, null, null, null);
+        BookDto third = BookTestUtils.createBookDto(
+                3L, "C", null, null, null, null, null, null);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("title"));
+
+        // When
+        when(bookRepository.findDtos(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(first, second, third));
+
+        BookCursorPageDto result = bookService.findAll(null, pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(first, second);
+        assertThat(result.isHasNext()).isTrue();
+        BookCursor next = BookCursor.decode(result.getNextCursor());
+        assertThat(next.property()).isEqualTo("title");
+        assertThat(next.value()).isEqualTo("B");
+        assertThat(next.id()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("findAll() - Given malformed cursor,"
+            + " When scrolling, Then throws InvalidRequestException")
+    public void findAll_MalformedCursor_ThrowsInvalidRequestException() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 2);
+
+        // Then
+        assertThatThrownBy(() -> bookService.findAll("not-a-cursor", pageable))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    private Book createIndexedBook(Long id, Long... categoryIds) {
+        Category[] categories = new Category[categoryIds.length];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categories[i] = BookTestUtils.createCategory(categoryIds[i], "Category");
+        }
+        Book book = BookTestUtils.createBook(BookTestUtils.createBookRequestDto(), categories);
+        book.setId(id);
+        return book;
+    }
+
+    private static CatalogGeneration readyCatalogGeneration() {
+        CatalogGeneration catalogGeneration = new CatalogGeneration();
+        catalogGeneration.markReady();
+        return catalogGeneration;
     }
 }
@@ -5,15 +5,18 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.Optional;
 import org.example.springintro.dto.category.CategoryDto;
 import org.example.springintro.dto.category.CreateCategoryRequestDto;
+import org.example.springintro.event.CategoryDeletedEvent;
 import org.example.springintro.exception.EntityNotFoundException;
 import org.example.springintro.mapper.CategoryMapper;
 import org.example.springintro.model.Category;
+import org.example.springintro.repository.book.BookRepository;
 import org.example.springintro.repository.categoty.CategoryRepository;
 import org.example.springintro.services.impl.CategoryServiceImpl;
 import org.example.springintro.util.BookTestUtils;
@@ -23,6 +26,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceTest {
@@ -33,6 +37,12 @@ class CategoryServiceTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -41,24 +51,19 @@ class CategoryServiceTest {
             + " when findAll is called, then return list of categoryDtos")
     public void findAll_CategoriesExist_ReturnsListOfCategoryDtos() {
         // given
-        Category categoryFirst = BookTestUtils.createCategory(1L, "Fiction");
-        Category categorySecond = BookTestUtils.createCategory(2L, "Non-Fiction");
-
         CategoryDto categoryDtoFirst = BookTestUtils.createCategoryDto(1L, "Fiction");
         CategoryDto categoryDtoSecond = BookTestUtils.createCategoryDto(2L, "Non-Fiction");
 
-        when(categoryRepository.findAll()).thenReturn(List.of(categoryFirst, categorySecond));
-        when(categoryMapper.toDto(categoryFirst)).thenReturn(categoryDtoFirst);
-        when(categoryMapper.toDto(categorySecond)).thenReturn(categoryDtoSecond);
+        when(categoryRepository.findAllDtos())
+                .thenReturn(List.of(categoryDtoFirst, categoryDtoSecond));
 
         // when
         List<CategoryDto> result = categoryService.findAll();
 
         // then
         assertThat(result).containsExactlyInAnyOrder(categoryDtoFirst, categoryDtoSecond);
-        verify(categoryRepository, times(1)).findAll();
-        verify(categoryMapper, times(1)).toDto(categoryFirst);
-        verify(categoryMapper, times(1)).toDto(categorySecond);
+        verify(categoryRepository, times(1)).findAllDtos();
+        verifyNoInteractions(categoryMapper);
     }
 
     @Test
@@ -175,6 +180,23 @@ class CategoryServiceTest {
         categoryService.deleteById(id);
 
         // then
+        verify(bookRepository, times(1)).incrementVersionsByCategoryId(id);
         verify(categoryRepository, times(1)).deleteById(id);
+        verify(eventPublisher, times(1)).publishEvent(new CategoryDeletedEvent(id));
+    }
+
+    @Test
+    @DisplayName("Given a missing categoryId, when getVersionById is called,"
+            + " then throw EntityNotFoundException")
+    public void getVersionById_MissingId_ThrowsEntityNotFoundException() {
+        // given
+        Long id = 99L;
+        when(categoryRepository.findVersionById(id)).thenReturn(Optional.empty());
+
+        // when, then
+        assertThatThrownBy(() -> categoryService.getVersionById(id))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Category not found by id: " + id);
+        verifyNoInteractions(categoryMapper);
     }
 }
@@ -11,12 +11,14 @@ import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.example.springintro.dto.order.OrderDto;
 import org.example.springintro.dto.order.OrderItemDto;
 import org.example.springintro.dto.order.OrderRequestDto;
 import org.example.springintro.dto.order.OrderStatusUpdateDto;
+import org.example.springintro.event.OrderPlacedEvent;
 import org.example.springintro.mapper.OrderMapper;
 import org.example.springintro.model.Book;
 import org.example.springintro.model.CartItem;
@@ -32,9 +34,11 @@ import org.example.springintro.services.impl.OrderServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -51,6 +55,12 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private ShoppingCartService shoppingCartService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -63,6 +73,7 @@ class OrderServiceTest {
         user.setId(1L);
 
         Book book = new Book();
+        book.setId(7L);
         book.setPrice(BigDecimal.valueOf(49.99));
 
         CartItem cartItem = new CartItem();
@@ -88,10 +99,14 @@ class OrderServiceTest {
         OrderDto result = orderService.placeOrder(user, requestDto);
 
         // Then
+        verify(shoppingCartService).flushCart(user.getId());
         verify(orderRepository, times(1)).save(any(Order.class));
         verify(shoppingCartRepository, times(1)).delete(shoppingCart);
         assertThat(result).isNotNull();
         verify(orderMapper, times(1)).toDto(any(Order.class)); // Проверяем вызов маппера
+        ArgumentCaptor<OrderPlacedEvent> event = ArgumentCaptor.forClass(OrderPlacedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().quantities()).isEqualTo(Map.of(7L, 3));
     }
 
     @Test
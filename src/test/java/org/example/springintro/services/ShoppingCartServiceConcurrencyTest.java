@@ -0,0 +1,79 @@
+package org.example.springintro.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.example.springintro.dto.shoppingcart.AddToCartRequestDto;
+import org.example.springintro.dto.shoppingcart.CartItemResponseDto;
+import org.example.springintro.dto.shoppingcart.ShoppingCartDto;
+import org.example.springintro.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+class ShoppingCartServiceConcurrencyTest {
+    private static final Long USER_ID = 1L;
+    private static final Long BOOK_ID = 1L;
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 50;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+
+    @Test
+    @DisplayName("addBookToCart() - Given concurrent adds of one book,"
+            + " When adding, Then keeps a single item and loses no updates")
+    @Sql(scripts = {
+            "classpath:database/users/add-users.sql",
+            "classpath:database/books/add-books-and-categories.sql",
+            "classpath:database/shoppingcart/add-shopping-cart.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(statements = "DELETE FROM cart_items WHERE shopping_cart_id = 1",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/shoppingcart/remove-shopping-cart.sql",
+            "classpath:database/books/remove-books-and-categories.sql",
+            "classpath:database/users/remove-users.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void addBookToCart_ConcurrentAdds_KeepsOneItemWithTotalQuantity() throws Exception {
+        User user = new User();
+        user.setId(USER_ID);
+        AddToCartRequestDto request = new AddToCartRequestDto();
+        request.setBookId(BOOK_ID);
+        request.setQuantity(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> adds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            adds.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ADDS_PER_THREAD; j++) {
+                    shoppingCartService.addBookToCart(request, user);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> add : adds) {
+                add.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ShoppingCartDto cart = shoppingCartService.getCartForCurrentUser(USER_ID);
+        assertThat(cart.getCartItems()).singleElement()
+                .extracting(CartItemResponseDto::getQuantity)
+                .isEqualTo(THREADS * ADDS_PER_THREAD);
+    }
+}
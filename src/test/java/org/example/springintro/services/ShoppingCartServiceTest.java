@@ -4,19 +4,20 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Optional;
+import org.example.springintro.cache.BookCache;
 import org.example.springintro.dto.shoppingcart.AddToCartRequestDto;
 import org.example.springintro.dto.shoppingcart.ShoppingCartDto;
 import org.example.springintro.dto.shoppingcart.UpdateCartItemRequestDto;
 import org.example.springintro.exception.EntityNotFoundException;
 import org.example.springintro.mapper.ShoppingCartMapper;
-import org.example.springintro.model.Book;
 import org.example.springintro.model.CartItem;
 import org.example.springintro.model.ShoppingCart;
 import org.example.springintro.model.User;
@@ -27,9 +28,12 @@ import org.example.springintro.services.impl.ShoppingCartServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
 
 @ExtendWith(MockitoExtension.class)
 class ShoppingCartServiceTest {
@@ -47,6 +51,9 @@ class ShoppingCartServiceTest {
     @Mock
     private ShoppingCartMapper shoppingCartMapper;
 
+    @Spy
+    private BookCache bookCache = new BookCache(100);
+
     @InjectMocks
     private ShoppingCartServiceImpl shoppingCartService;
 
@@ -149,8 +156,9 @@ class ShoppingCartServiceTest {
     }
 
     @Test
-    @DisplayName("addBookToCart() - Book already in the cart, should update quantity")
-    void addBookToCart_BookAlreadyInCart_ShouldUpdateQuantity() {
+    @DisplayName("addBookToCart() - Given existing book, When adding to cart,"
+            + " Then upserts the quantity without loading the cart first")
+    void addBookToCart_ExistingBook_UpsertsQuantity() {
         // Given
         AddToCartRequestDto requestDto = new AddToCartRequestDto();
         requestDto.setBookId(100L);
@@ -160,68 +168,94 @@ class ShoppingCartServiceTest {
         user.setId(1L);
 
         ShoppingCart shoppingCart = new ShoppingCart();
-        shoppingCart.setUser(user);
-
-        Book book = new Book();
-        book.setId(100L);
-
-        CartItem existingCartItem = new CartItem();
-        existingCartItem.setBook(book);
-        existingCartItem.setQuantity(1);
-
-        shoppingCart.setCartItems(new HashSet<>(Collections.singleton(existingCartItem)));
+        shoppingCart.setId(5L);
+        ShoppingCartDto shoppingCartDto = new ShoppingCartDto();
 
-        // When
+        when(shoppingCartRepository.findIdByUserId(user.getId())).thenReturn(Optional.of(5L));
+        when(bookRepository.existsById(100L)).thenReturn(true);
         when(shoppingCartRepository.findByUserId(user.getId())).thenReturn(shoppingCart);
-        when(bookRepository.findById(requestDto.getBookId())).thenReturn(Optional.of(book));
-
-        ShoppingCartDto shoppingCartDto = new ShoppingCartDto();
         when(shoppingCartMapper.toDto(shoppingCart)).thenReturn(shoppingCartDto);
 
+        // When
         ShoppingCartDto result = shoppingCartService.addBookToCart(requestDto, user);
 
         // Then
-        assertThat(existingCartItem.getQuantity()).isEqualTo(3);
         assertThat(result).isEqualTo(shoppingCartDto);
-        verify(shoppingCartRepository, times(1)).save(shoppingCart);
-        verify(shoppingCartMapper, times(1)).toDto(shoppingCart);
+        InOrder inOrder = inOrder(cartItemRepository, shoppingCartRepository);
+        inOrder.verify(cartItemRepository).addQuantity(5L, 100L, 2);
+        inOrder.verify(shoppingCartRepository).findByUserId(user.getId());
+        verify(shoppingCartRepository, never()).save(any());
     }
 
     @Test
-    @DisplayName("addBookToCart() - Book not in cart, should add new item")
-    void addBookToCart_BookNotInCart_ShouldAddNewItem() {
+    @DisplayName("addBookToCart() - Given a deadlocked upsert, When adding to cart,"
+            + " Then retries it in a new transaction")
+    void addBookToCart_DeadlockedUpsert_RetriesUpsert() {
         // Given
         AddToCartRequestDto requestDto = new AddToCartRequestDto();
-        requestDto.setBookId(101L);
+        requestDto.setBookId(100L);
         requestDto.setQuantity(2);
 
         User user = new User();
         user.setId(1L);
 
-        ShoppingCart shoppingCart = new ShoppingCart();
-        shoppingCart.setUser(user);
-        shoppingCart.setCartItems(new HashSet<>());
-
-        Book book = new Book();
-        book.setId(101L);
+        when(shoppingCartRepository.findIdByUserId(user.getId())).thenReturn(Optional.of(5L));
+        when(bookRepository.existsById(100L)).thenReturn(true);
+        when(cartItemRepository.addQuantity(5L, 100L, 2))
+                .thenThrow(new CannotAcquireLockException("Deadlock found"))
+                .thenReturn(1);
 
         // When
-        when(shoppingCartRepository.findByUserId(user.getId())).thenReturn(shoppingCart);
-        when(bookRepository.findById(requestDto.getBookId())).thenReturn(Optional.of(book));
+        shoppingCartService.addBookToCart(requestDto, user);
 
-        ShoppingCartDto shoppingCartDto = new ShoppingCartDto();
-        when(shoppingCartMapper.toDto(shoppingCart)).thenReturn(shoppingCartDto);
+        // Then
+        verify(cartItemRepository, times(2)).addQuantity(5L, 100L, 2);
+    }
 
-        ShoppingCartDto result = shoppingCartService.addBookToCart(requestDto, user);
+    @Test
+    @DisplayName("addBookToCart() - Given an upsert that keeps deadlocking,"
+            + " When adding to cart, Then gives up after bounded retries")
+    void addBookToCart_PersistentDeadlock_ThrowsAfterRetries() {
+        // Given
+        AddToCartRequestDto requestDto = new AddToCartRequestDto();
+        requestDto.setBookId(100L);
+        requestDto.setQuantity(2);
 
-        // Then
-        assertThat(shoppingCart.getCartItems()).hasSize(1);
-        CartItem newItem = shoppingCart.getCartItems().iterator().next();
-        assertThat(newItem.getBook().getId()).isEqualTo(101L);
-        assertThat(newItem.getQuantity()).isEqualTo(2);
+        User user = new User();
+        user.setId(1L);
+
+        when(shoppingCartRepository.findIdByUserId(user.getId())).thenReturn(Optional.of(5L));
+        when(bookRepository.existsById(100L)).thenReturn(true);
+        when(cartItemRepository.addQuantity(5L, 100L, 2))
+                .thenThrow(new CannotAcquireLockException("Deadlock found"));
+
+        // When / Then
+        assertThatThrownBy(() -> shoppingCartService.addBookToCart(requestDto, user))
+                .isInstanceOf(CannotAcquireLockException.class);
+        verify(cartItemRepository, times(5)).addQuantity(5L, 100L, 2);
+        verify(shoppingCartRepository, never()).findByUserId(any());
+    }
 
-        verify(shoppingCartRepository).save(shoppingCart);
-        verify(shoppingCartMapper).toDto(shoppingCart);
+    @Test
+    @DisplayName("addBookToCart() - Given unknown book, When adding to cart,"
+            + " Then throws EntityNotFoundException")
+    void addBookToCart_UnknownBook_ThrowsEntityNotFoundException() {
+        // Given
+        AddToCartRequestDto requestDto = new AddToCartRequestDto();
+        requestDto.setBookId(101L);
+        requestDto.setQuantity(2);
+
+        User user = new User();
+        user.setId(1L);
+
+        when(shoppingCartRepository.findIdByUserId(user.getId())).thenReturn(Optional.of(5L));
+        when(bookRepository.existsById(101L)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> shoppingCartService.addBookToCart(requestDto, user))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Book not found");
+        verify(cartItemRepository, never()).addQuantity(any(), any(), anyInt());
     }
 
     @Test
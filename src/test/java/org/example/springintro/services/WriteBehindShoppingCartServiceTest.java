@@ -0,0 +1,216 @@
+package org.example.springintro.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.example.springintro.dto.book.BookDto;
+import org.example.springintro.dto.shoppingcart.AddToCartRequestDto;
+import org.example.springintro.dto.shoppingcart.ShoppingCartDto;
+import org.example.springintro.dto.shoppingcart.UpdateCartItemRequestDto;
+import org.example.springintro.exception.EntityNotFoundException;
+import org.example.springintro.model.ShoppingCart;
+import org.example.springintro.model.User;
+import org.example.springintro.repository.shoppingcart.ShoppingCartRepository;
+import org.example.springintro.services.impl.WriteBehindShoppingCartService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindShoppingCartServiceTest {
+    private static final long CART_ID = 5L;
+    private static final long BOOK_ID = 7L;
+
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rows;
+
+    @TempDir
+    private Path journalDirectory;
+
+    private final List<WriteBehindShoppingCartService> services = new ArrayList<>();
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(CART_ID);
+        shoppingCart.setCartItems(new HashSet<>());
+        when(shoppingCartRepository.findByUserId(user.getId())).thenReturn(shoppingCart);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(10L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(WriteBehindShoppingCartService::shutdown);
+    }
+
+    @Test
+    @DisplayName("flush() - Given several changes to one item, When flushing,"
+            + " Then serves them from memory and writes one row")
+    void flush_SeveralChanges_WritesOneRow() {
+        // Given
+        WriteBehindShoppingCartService service = start();
+        stubBook();
+        service.addBookToCart(addRequest(2), user);
+        service.addBookToCart(addRequest(1), user);
+        service.updateBookQuantity(11L, updateRequest(5), user);
+
+        // When
+        ShoppingCartDto cart = service.getCartForCurrentUser(user.getId());
+        service.flush();
+
+        // Then
+        assertThat(cart.getId()).isEqualTo(CART_ID);
+        assertThat(cart.getCartItems()).singleElement().satisfies(item -> {
+            assertThat(item.getId()).isEqualTo(11L);
+            assertThat(item.getBookTitle()).isEqualTo("Dune");
+            assertThat(item.getQuantity()).isEqualTo(5);
+        });
+        verify(shoppingCartRepository, times(1)).findByUserId(user.getId());
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).containsExactly(new Object[] {11L, CART_ID, BOOK_ID, 5});
+
+        start();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("recover() - Given unflushed changes of a crashed run, When starting,"
+            + " Then replays them into the database")
+    void recover_UnflushedChanges_ReplaysJournal() {
+        // Given
+        WriteBehindShoppingCartService crashed = start();
+        stubBook();
+        crashed.addBookToCart(addRequest(2), user);
+        crashed.addBookToCart(addRequest(3), user);
+
+        // When
+        start();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).containsExactly(new Object[] {11L, CART_ID, BOOK_ID, 5});
+    }
+
+    @Test
+    @DisplayName("flushCart() - Given a removed item, When flushing the cart,"
+            + " Then deletes the row and reloads the cart on next access")
+    void flushCart_RemovedItem_DeletesRowAndEvictsCart() {
+        // Given
+        WriteBehindShoppingCartService service = start();
+        stubBook();
+        service.addBookToCart(addRequest(1), user);
+        service.removeBookFromCart(11L, user);
+
+        // When
+        service.flushCart(user.getId());
+        service.getCartForCurrentUser(user.getId());
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM cart_items WHERE id = ?"),
+                rows.capture());
+        assertThat(rows.getValue()).containsExactly(new Object[] {11L});
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(shoppingCartRepository, times(2)).findByUserId(user.getId());
+        assertThatThrownBy(() -> service.removeBookFromCart(11L, user))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("recover() - Given concurrent changes of many users, When starting again,"
+            + " Then replays every acknowledged change")
+    void recover_ConcurrentChanges_ReplaysAll() throws InterruptedException {
+        // Given
+        WriteBehindShoppingCartService crashed = start();
+        stubBook();
+        List<Long> cartIds = new ArrayList<>(List.of(CART_ID));
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> crashed.addBookToCart(addRequest(1), user)));
+        for (long userId = 2; userId <= 16; userId++) {
+            User other = new User();
+            other.setId(userId);
+            ShoppingCart shoppingCart = new ShoppingCart();
+            shoppingCart.setId(userId * 10);
+            cartIds.add(shoppingCart.getId());
+            shoppingCart.setCartItems(new HashSet<>());
+            when(shoppingCartRepository.findByUserId(userId)).thenReturn(shoppingCart);
+            threads.add(new Thread(() -> crashed.addBookToCart(addRequest(1), other)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // When
+        start();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[1])
+                .containsExactlyInAnyOrderElementsOf(cartIds);
+    }
+
+    private WriteBehindShoppingCartService start() {
+        WriteBehindShoppingCartService service = new WriteBehindShoppingCartService(
+                shoppingCartRepository, bookService, jdbcTemplate, transactionManager,
+                journalDirectory, Duration.ofMinutes(30));
+        service.recover();
+        services.add(service);
+        return service;
+    }
+
+    private void stubBook() {
+        BookDto book = new BookDto();
+        book.setId(BOOK_ID);
+        book.setTitle("Dune");
+        when(bookService.findById(BOOK_ID)).thenReturn(book);
+    }
+
+    private static AddToCartRequestDto addRequest(int quantity) {
+        AddToCartRequestDto request = new AddToCartRequestDto();
+        request.setBookId(BOOK_ID);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private static UpdateCartItemRequestDto updateRequest(int quantity) {
+        UpdateCartItemRequestDto request = new UpdateCartItemRequestDto();
+        request.setQuantity(quantity);
+        return request;
+    }
+}